@@ -0,0 +1,41 @@
+package com.project.expense_tracker_backend.benchmark;
+
+import com.project.expense_tracker_backend.util.DateUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The month lookups done for every listing (parsing the yearMonth parameter, or the current month when it is missing)
+ * and for every saved expense.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class DateUtilBenchmark {
+
+    // not constants, so that the JIT can not fold the calls away
+    private String yearMonth = "2024-07";
+
+    private LocalDate date = LocalDate.of(2024, 7, 14);
+
+    @Benchmark
+    public YearMonth parseYearMonth() {
+        return DateUtil.getYearMonth(yearMonth);
+    }
+
+    @Benchmark
+    public YearMonth currentYearMonth() {
+        return DateUtil.getYearMonth((String) null);
+    }
+
+    @Benchmark
+    public YearMonth yearMonthOfDate() {
+        return DateUtil.getYearMonth(date);
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.expense_tracker_backend.benchmark;
+
+import com.project.expense_tracker_backend.ExpenseTrackerBackendApplication;
+import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
+import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
+import com.project.expense_tracker_backend.repository.AggregateExpenseRepository;
+import com.project.expense_tracker_backend.repository.ExpenseRepository;
+import com.project.expense_tracker_backend.service.IExpenseService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second inserted through {@link IExpenseService#saveUserExpenses(long, List)} for imports of different sizes.
+ * The {@code rows} counter in the output is the number to look at, the plain score counts whole imports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ExpenseBulkInsertBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    @Param({"10", "1000", "100000"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+
+    private IExpenseService expenseService;
+
+    private ExpenseRepository expenseRepository;
+
+    private AggregateExpenseRepository aggregateExpenseRepository;
+
+    private List<ExpenseRequestDto> userExpenses;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+
+        context = new SpringApplicationBuilder(ExpenseTrackerBackendApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bulk-insert-benchmark",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        expenseService = context.getBean(IExpenseService.class);
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        aggregateExpenseRepository = context.getBean(AggregateExpenseRepository.class);
+
+        userExpenses = new ArrayList<>(items);
+
+        for (int i = 0; i < items; i++) {
+            userExpenses.add(new ExpenseRequestDto("Statement line " + i, 10.0 + i % 100, LocalDate.of(2024, 7, 1 + i % 28),
+                    i % 2 == 0 ? "Groceries" : "Shopping"));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInsertedRows() {
+        expenseRepository.deleteAllInBatch();
+        aggregateExpenseRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDto> saveUserExpenses(InsertedRows insertedRows) {
+
+        List<ExpenseResponseDto> savedExpenses = expenseService.saveUserExpenses(USER_ID, userExpenses);
+
+        insertedRows.rows += savedExpenses.size();
+
+        return savedExpenses;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class InsertedRows {
+
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.project.expense_tracker_backend.benchmark;
+
+import com.project.expense_tracker_backend.ExpenseTrackerBackendApplication;
+import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
+import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
+import com.project.expense_tracker_backend.mapper.ExpenseMapper;
+import com.project.expense_tracker_backend.model.Expense;
+import com.project.expense_tracker_backend.repository.ExpenseRepository;
+import com.project.expense_tracker_backend.service.IExpenseService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing a month of 10k expenses by loading the entities (with their eager user and category) and mapping them, as
+ * getUserExpenses used to, compared to the DTO projection of {@link ExpenseRepository}.
+ * Run with {@code -prof gc}, the {@code gc.alloc.rate.norm} line is the heap allocated per listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ExpenseListingBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    private static final int EXPENSES = 10_000;
+
+    private static final YearMonth YEAR_MONTH = YearMonth.of(2024, 7);
+
+    private ConfigurableApplicationContext context;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private ExpenseRepository expenseRepository;
+
+    private ExpenseMapper expenseMapper;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+
+        context = new SpringApplicationBuilder(ExpenseTrackerBackendApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:expense-listing-benchmark",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        expenseMapper = context.getBean(ExpenseMapper.class);
+
+        List<ExpenseRequestDto> userExpenses = new ArrayList<>(EXPENSES);
+
+        for (int i = 0; i < EXPENSES; i++) {
+            userExpenses.add(new ExpenseRequestDto("Statement line " + i, 10.0 + i % 100,
+                    YEAR_MONTH.atDay(1 + i % 28), i % 2 == 0 ? "Groceries" : "Shopping"));
+        }
+
+        context.getBean(IExpenseService.class).saveUserExpenses(USER_ID, userExpenses);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDto> entities() {
+
+        // the derived findByUserUserIdAndDateBetween query, run outside a transaction like the repository did
+        try (EntityManager entityManager = entityManagerFactory.createEntityManager()) {
+
+            List<Expense> userExpenses = entityManager.createQuery(
+                            "select e from Expense e where e.user.userId = :userId and e.date between :fromDate and :toDate",
+                            Expense.class)
+                    .setParameter("userId", USER_ID)
+                    .setParameter("fromDate", YEAR_MONTH.atDay(1))
+                    .setParameter("toDate", YEAR_MONTH.atEndOfMonth())
+                    .getResultList();
+
+            return expenseMapper.expenseToExpenseResponseMapper(userExpenses);
+        }
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDto> projection() {
+        return expenseRepository.findExpenseResponsesByUserIdAndDateBetween(USER_ID, YEAR_MONTH.atDay(1), YEAR_MONTH.atEndOfMonth());
+    }
+}
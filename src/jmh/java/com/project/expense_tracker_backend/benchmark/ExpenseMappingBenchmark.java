@@ -0,0 +1,63 @@
+package com.project.expense_tracker_backend.benchmark;
+
+import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
+import com.project.expense_tracker_backend.mapper.ExpenseMapper;
+import com.project.expense_tracker_backend.model.Category;
+import com.project.expense_tracker_backend.model.Expense;
+import com.project.expense_tracker_backend.util.ExpensesUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per expense work of a save of 1000 expenses spread over a year: mapping them to the response and adding them up per
+ * month for the aggregate table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ExpenseMappingBenchmark {
+
+    private static final int EXPENSES = 1000;
+
+    private final ExpenseMapper expenseMapper = new ExpenseMapper();
+
+    private final List<Expense> expenses = new ArrayList<>(EXPENSES);
+
+    @Setup(Level.Trial)
+    public void createExpenses() {
+
+        Category[] categories = {new Category(1L, "Groceries"), new Category(2L, "Shopping"), new Category(3L, "Travel")};
+
+        for (int i = 0; i < EXPENSES; i++) {
+            expenses.add(new Expense((long) i, "Statement line " + i, 1000L + i,
+                    LocalDate.of(2024, 1, 1).plusDays(i % 366), categories[i % categories.length], null));
+        }
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDto> expenseToExpenseResponseMapper() {
+        return expenseMapper.expenseToExpenseResponseMapper(expenses);
+    }
+
+    @Benchmark
+    public Map<YearMonth, long[]> populateExpensePerYearMonthMap() {
+
+        Map<YearMonth, long[]> aggregateMap = new HashMap<>();
+
+        for (Expense expense : expenses) {
+            ExpensesUtil.populateExpensePerYearMonthMap(expense, aggregateMap);
+        }
+
+        return aggregateMap;
+    }
+}
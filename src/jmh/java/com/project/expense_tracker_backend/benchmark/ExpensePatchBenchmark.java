@@ -0,0 +1,79 @@
+package com.project.expense_tracker_backend.benchmark;
+
+import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
+import com.project.expense_tracker_backend.mapper.ExpensePatchApplier;
+import com.project.expense_tracker_backend.model.Category;
+import com.project.expense_tracker_backend.model.Expense;
+import com.project.expense_tracker_backend.util.MoneyUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.beans.PropertyDescriptor;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of applying the PUT request of an expense update with the reflective copy of the non-null properties that
+ * updateUserExpense used to do (BeanUtil.copyNonNullProperties) compared to the {@link ExpensePatchApplier}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ExpensePatchBenchmark {
+
+    private final Expense existingExpense =
+            new Expense(1L, "Lunch", 50000L, LocalDate.of(2024, 7, 1), new Category(1L, "Food"), null);
+
+    // the category is not part of the patch, so the applier never needs the dictionary
+    private final ExpensePatchApplier expensePatchApplier = new ExpensePatchApplier(null);
+
+    private ExpenseRequestDto patch;
+
+    @Setup(Level.Trial)
+    public void createPatch() {
+
+        patch = new ExpenseRequestDto();
+        patch.setDescription("Dinner");
+        patch.setAmount(12.5);
+    }
+
+    @Benchmark
+    public Expense copyNonNullProperties() {
+
+        Expense updatedExpense = new Expense(existingExpense);
+
+        BeanUtils.copyProperties(patch, updatedExpense, getNullPropertyNames(patch));
+        updatedExpense.setAmount(MoneyUtil.toMinorUnits(patch.getAmount()));
+
+        return updatedExpense;
+    }
+
+    @Benchmark
+    public Expense patchApplier() {
+
+        Expense updatedExpense = new Expense(existingExpense);
+
+        expensePatchApplier.applyPatch(patch, updatedExpense);
+
+        return updatedExpense;
+    }
+
+    private static String[] getNullPropertyNames(Object source) {
+
+        BeanWrapper src = new BeanWrapperImpl(source);
+
+        Set<String> emptyNames = new HashSet<>();
+        for (PropertyDescriptor pd : src.getPropertyDescriptors()) {
+            if (src.getPropertyValue(pd.getName()) == null) emptyNames.add(pd.getName());
+        }
+
+        return emptyNames.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.expense_tracker_backend.benchmark;
+
+import com.project.expense_tracker_backend.config.JwtCodec;
+import com.project.expense_tracker_backend.config.JwtProperties;
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating the token of one authenticated request, when the key and the parser are built for every request
+ * (as JwtValidatorFilter used to) compared to the shared {@link JwtCodec}, and of encrypting the token of a login that
+ * misses the token cache (JwtGenerator).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String JWT_SECRET = "sCoFYMXO6EqzLaKXKlp9Mc2DkKdnAV3lSmGGDqunVvA=";
+
+    private JwtCodec jwtCodec;
+
+    private Map<String, Object> claims;
+
+    private Date expiration;
+
+    private String token;
+
+    @Setup(Level.Trial)
+    public void createToken() {
+
+        jwtCodec = new JwtCodec(new JwtProperties(JWT_SECRET, "default", null, 300_000, 0, 10_000, 30_000));
+
+        claims = Map.of(ApplicationConstants.JWT_EMAIL_CLAIM, "test1@gmail.com",
+                ApplicationConstants.JWT_USER_ID_CLAIM, 1L,
+                ApplicationConstants.JWT_TOKEN_VERSION_CLAIM, 0);
+
+        expiration = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+
+        token = jwtCodec.encode(claims, expiration);
+    }
+
+    @Benchmark
+    public Claims keyAndParserPerRequest() {
+
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWT_SECRET));
+
+        return Jwts.parser().decryptWith(key)
+                .build()
+                .parseEncryptedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims sharedCodec() {
+        return jwtCodec.decode(token);
+    }
+
+    @Benchmark
+    public String encode() {
+        return jwtCodec.encode(claims, expiration);
+    }
+}
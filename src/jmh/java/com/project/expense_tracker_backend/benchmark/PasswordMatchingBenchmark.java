@@ -0,0 +1,87 @@
+package com.project.expense_tracker_backend.benchmark;
+
+import com.project.expense_tracker_backend.config.PasswordRehasher;
+import com.project.expense_tracker_backend.config.UsernamePasswordAuthenticationProvider;
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.model.User;
+import com.project.expense_tracker_backend.service.UserDetailsService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a login in {@link UsernamePasswordAuthenticationProvider} with the user already cached, which is all BCrypt
+ * matching at the default strength, next to the bare match. A failed login should cost about one match as well, the
+ * cached password being confirmed as current by its version instead of a second match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PasswordMatchingBenchmark {
+
+    private static final String EMAIL = "test1@gmail.com";
+
+    private static final String PASSWORD = "12345";
+
+    private static final String WRONG_PASSWORD = "54321";
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+
+    private UsernamePasswordAuthenticationProvider authenticationProvider;
+
+    private String encodedPassword;
+
+    @Setup(Level.Trial)
+    public void cacheUser() {
+
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+        cacheManager.getCache(ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL).put(EMAIL,
+                new User(1L, "test1", EMAIL, encodedPassword, 0, "9999999999", LocalDateTime.now(), LocalDateTime.now()));
+
+        // the user is always found in the cache and its password is current, a failed login only asks for the version
+        UserDetailsService userDetailsService = new UserDetailsService(null) {
+
+            @Override
+            public Integer findPasswordVersion(String email) {
+                return 0;
+            }
+        };
+
+        authenticationProvider = new UsernamePasswordAuthenticationProvider(passwordEncoder, userDetailsService, cacheManager,
+                // same cost as the password is hashed with, nothing is rehashed
+                new PasswordRehasher(passwordEncoder, userDetailsService, 1));
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, PASSWORD));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Object authenticateWrongPassword() {
+        try {
+            return authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, WRONG_PASSWORD));
+        } catch (BadCredentialsException badCredentialsException) {
+            return badCredentialsException;
+        }
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, encodedPassword);
+    }
+}
@@ -0,0 +1,81 @@
+package com.project.expense_tracker_backend.config;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt with a cost picked for the hardware it runs on (see {@link #calibrateStrength}). A hash made with a lower
+ * cost, or with a cost more than one step higher, is reported by {@link #upgradeEncoding} so that it is hashed again
+ * on the next login.
+ * <p>
+ * A hash one step above the cost is kept: the cost is measured again on every start, and two instances or two
+ * restarts that land on either side of a rounding boundary would otherwise hash every password back and forth.
+ */
+@Slf4j
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    // $2a$10$..., the cost is the second field of the hash
+    private static final Pattern BCRYPT_STRENGTH = Pattern.compile("\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private static final int PROBE_STRENGTH = 8;
+
+    private static final int PROBE_ROUNDS = 5;
+
+    private static final String PROBE_PASSWORD = "calibration";
+
+    @Getter
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * The cost whose match takes closest to targetVerifyTime on this machine, between minStrength and maxStrength.
+     * Every step of the cost doubles the work, so a match at a low cost is timed and scaled, instead of trying the
+     * expensive costs one by one.
+     */
+    public static int calibrateStrength(Duration targetVerifyTime, int minStrength, int maxStrength) {
+
+        BCryptPasswordEncoder probeEncoder = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        String encodedPassword = probeEncoder.encode(PROBE_PASSWORD);
+
+        // the fastest round, the first ones are slowed down by class loading and JIT compilation
+        long probeTime = Long.MAX_VALUE;
+
+        for (int round = 0; round < PROBE_ROUNDS; round++) {
+
+            long startTime = System.nanoTime();
+            probeEncoder.matches(PROBE_PASSWORD, encodedPassword);
+            probeTime = Math.min(probeTime, System.nanoTime() - startTime);
+        }
+
+        double doublings = Math.log((double) targetVerifyTime.toNanos() / probeTime) / Math.log(2);
+        int strength = Math.clamp(PROBE_STRENGTH + Math.round(doublings), minStrength, maxStrength);
+
+        log.info("BCrypt cost {} matched in {} us, hashing with cost {} for a target of {} ms", PROBE_STRENGTH,
+                probeTime / 1000, strength, targetVerifyTime.toMillis());
+
+        return strength;
+    }
+
+    @Override
+    protected boolean upgradeEncodingNonNull(String encodedPassword) {
+
+        Matcher matcher = BCRYPT_STRENGTH.matcher(encodedPassword);
+
+        if (!matcher.lookingAt()) {
+            return false;
+        }
+
+        int encodedStrength = Integer.parseInt(matcher.group(1));
+
+        return encodedStrength < strength || encodedStrength > strength + 1;
+    }
+}
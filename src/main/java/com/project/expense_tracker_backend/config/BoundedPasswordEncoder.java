@@ -0,0 +1,99 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+
+/**
+ * Runs the hashing and matching of another encoder on a dedicated pool with a bounded queue, so that a burst of logins
+ * can only keep that many cores busy instead of every request thread. The caller waits for its task, and is turned
+ * away at once with a {@link PasswordHashingRejectedException} when the queue is full.
+ * The pool is exported as the {@code password.hashing} executor metrics: queued tasks, and the time tasks waited
+ * ({@code executor.idle}) and ran ({@code executor}).
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    private final ExecutorService executorService;
+
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder passwordEncoder, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+
+        this.passwordEncoder = passwordEncoder;
+
+        this.threadPoolExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("password-hashing-", 1).daemon().factory());
+
+        this.executorService = ExecutorServiceMetrics.monitor(meterRegistry, threadPoolExecutor,
+                ApplicationConstants.PASSWORD_HASHING_EXECUTOR_NAME);
+
+        this.rejectedCounter = Counter.builder(ApplicationConstants.PASSWORD_HASHING_REJECTED_METRIC_NAME)
+                .description("Password hashes and matches turned away because the password hashing queue was full")
+                .register(meterRegistry);
+
+        log.info("Password hashing on {} threads, with up to {} waiting", threads, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T execute(Callable<T> task) {
+
+        Future<T> future;
+
+        try {
+            future = executorService.submit(task);
+        } catch (RejectedExecutionException rejectedExecutionException) {
+
+            rejectedCounter.increment();
+
+            throw new PasswordHashingRejectedException(ApplicationConstants.PASSWORD_HASHING_BUSY);
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException executionException) {
+
+            if (executionException.getCause() instanceof RuntimeException exception) {
+                throw exception;
+            }
+
+            throw new IllegalStateException(executionException.getCause());
+        } catch (InterruptedException interruptedException) {
+
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted while waiting for the password hashing", interruptedException);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        threadPoolExecutor.shutdownNow();
+    }
+}
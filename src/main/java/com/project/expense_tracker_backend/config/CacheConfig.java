@@ -1,43 +1,81 @@
 package com.project.expense_tracker_backend.config;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Expiry;
 import com.project.expense_tracker_backend.constants.ApplicationConstants;
-import lombok.extern.slf4j.Slf4j;
+import com.project.expense_tracker_backend.dto.MonthlyExpenses;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.time.Duration;
-import java.time.Instant;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.concurrent.TimeUnit;
 
-@Slf4j
 @Configuration
 @EnableCaching
+@AllArgsConstructor
 public class CacheConfig {
 
+    private final ExpenseProperties expenseProperties;
+
+    private final JwtProperties jwtProperties;
+
     @Bean
     public Cache<Object, Object> userDetailsCacheByEmail() {
         return Caffeine.newBuilder().maximumSize(10L)
                 .expireAfterAccess(30, TimeUnit.MINUTES)
+                .recordStats()
                 .build();
     }
 
     @Bean
     public Cache<Object, Object> userDetailsCacheById() {
-        return Caffeine.newBuilder().maximumSize(50L).expireAfterAccess(30, TimeUnit.MINUTES).build();
+        return Caffeine.newBuilder().maximumSize(50L).expireAfterAccess(30, TimeUnit.MINUTES).recordStats().build();
     }
 
     @Bean
     public Cache<Object, Object> jwtCache() {
-        return Caffeine.newBuilder().expireAfter(new JwtAuthTokenExpiry()).build();
+        return Caffeine.newBuilder().maximumSize(10_000L)
+                .expireAfter(new JwtAuthTokenExpiry(jwtProperties.refreshMargin()))
+                .recordStats()
+                .build();
+    }
+
+    @Bean
+    public Cache<Object, Object> verifiedTokenClaimsCache() {
+        return Caffeine.newBuilder().maximumSize(jwtProperties.verifiedTokenCacheSize())
+                .expireAfter(new VerifiedTokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    @Bean
+    public Cache<Object, Object> tokenVersionCache() {
+
+        // expired after write, not after access, so that a revocation on another instance is picked up
+        return Caffeine.newBuilder().maximumSize(10_000L)
+                .expireAfterWrite(jwtProperties.tokenVersionTtl(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    @Bean
+    public AsyncCache<Object, Object> monthlyExpensesCache() {
+
+        // weighted by the number of expenses in a month, so a few very busy months can not take up all the memory.
+        // Asynchronous, so that a month is loaded outside of the cache's map lock (see ExpenseServiceImpl)
+        return Caffeine.newBuilder().maximumWeight(expenseProperties.monthCacheMaxExpenses())
+                .weigher((Object key, Object value) -> 1 + ((MonthlyExpenses) value).expenses().size())
+                .expireAfterAccess(30, TimeUnit.MINUTES)
+                .recordStats()
+                .buildAsync();
     }
 
     @Bean
@@ -47,59 +85,95 @@ public class CacheConfig {
                 new CaffeineCacheManager(
                         ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL,
                         ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_ID,
-                        ApplicationConstants.JWT_CACHE_NAME);
+                        ApplicationConstants.JWT_CACHE_NAME,
+                        ApplicationConstants.VERIFIED_TOKEN_CACHE_NAME,
+                        ApplicationConstants.MONTHLY_EXPENSES_CACHE_NAME,
+                        ApplicationConstants.TOKEN_VERSION_CACHE_NAME);
 
         cacheManager.registerCustomCache(ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL, userDetailsCacheByEmail());
         cacheManager.registerCustomCache(ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_ID, userDetailsCacheById());
         cacheManager.registerCustomCache(ApplicationConstants.JWT_CACHE_NAME, jwtCache());
+        cacheManager.registerCustomCache(ApplicationConstants.VERIFIED_TOKEN_CACHE_NAME, verifiedTokenClaimsCache());
+        cacheManager.registerCustomCache(ApplicationConstants.MONTHLY_EXPENSES_CACHE_NAME, monthlyExpensesCache());
+        cacheManager.registerCustomCache(ApplicationConstants.TOKEN_VERSION_CACHE_NAME, tokenVersionCache());
 
         return cacheManager;
     }
 
-    static class JwtAuthTokenExpiry implements Expiry<Object, Object> {
+    /**
+     * The size and the hit and miss counts of every cache are bound by Spring Boot as cache.size and cache.gets, this
+     * adds the hit ratio since the caches were created.
+     */
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(CacheManager cacheManager) {
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyy HH:mm:ss");
+        return meterRegistry -> {
 
-        @Override
-        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            for (String cacheName : cacheManager.getCacheNames()) {
 
-            JwtGenerator.TokenPair tokenPair = (JwtGenerator.TokenPair) value;
+                Cache<?, ?> cache = ((CaffeineCache) cacheManager.getCache(cacheName)).getNativeCache();
 
-            // Get the expiration time in milliseconds
-            long expirationTimeMillis = tokenPair.expiration().getTime();
+                Gauge.builder(ApplicationConstants.CACHE_HIT_RATIO_METRIC_NAME, cache, nativeCache -> nativeCache.stats().hitRate())
+                        .description("Share of the cache lookups that were hits")
+                        .tag("cache", cacheName)
+                        .register(meterRegistry);
+            }
+        };
+    }
 
-            Instant instant = Instant.ofEpochMilli(expirationTimeMillis);
-            ZonedDateTime zonedDateTime = instant.atZone(ZoneId.systemDefault());
+    /**
+     * Expires an issued token a refresh margin before the token itself expires, so that a login gets a new token
+     * instead of one that is about to expire.
+     */
+    static class JwtAuthTokenExpiry implements Expiry<Object, Object> {
 
-            log.info("Expire after create : {}", formatter.format(zonedDateTime));
+        private final long refreshMarginMillis;
 
-            // Convert the current time from nanoseconds to milliseconds
-            long currentTimeMillis = System.currentTimeMillis();
+        JwtAuthTokenExpiry(long refreshMarginMillis) {
+            this.refreshMarginMillis = refreshMarginMillis;
+        }
 
-            // Calculate the duration until expiration in nanoseconds
-            long durationMillis = expirationTimeMillis - currentTimeMillis;
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
 
-            // Convert the duration from milliseconds to nanoseconds
-            return TimeUnit.MILLISECONDS.toNanos(durationMillis);
+            JwtGenerator.TokenPair tokenPair = (JwtGenerator.TokenPair) value;
+
+            long durationMillis = tokenPair.expiration().getTime() - refreshMarginMillis - System.currentTimeMillis();
+
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(durationMillis, 0));
         }
 
         @Override
         public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
-            return currentDuration;
+            return expireAfterCreate(key, value, currentTime);
         }
 
         @Override
         public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Expires a verified token exactly when the token itself expires.
+     */
+    static class VerifiedTokenExpiry implements Expiry<Object, Object> {
 
-            long currentTimeMillis = System.currentTimeMillis();
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
 
-            Instant currentInstant = Instant.ofEpochMilli(currentTimeMillis);
-            Duration duration = Duration.ofNanos(currentDuration);
-            Instant expirationInstant = currentInstant.plus(duration);
+            long durationMillis = ((VerifiedToken) value).expiration().toEpochMilli() - System.currentTimeMillis();
 
-            ZonedDateTime zonedDateTime = expirationInstant.atZone(ZoneId.systemDefault());
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(durationMillis, 0));
+        }
 
-            log.info("Expire after read : {}", formatter.format(zonedDateTime));
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
             return currentDuration;
         }
     }
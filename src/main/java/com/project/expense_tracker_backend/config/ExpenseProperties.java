@@ -0,0 +1,38 @@
+package com.project.expense_tracker_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "expense")
+public record ExpenseProperties(
+
+        // number of expenses persisted and flushed together when saving a list of expenses
+        @DefaultValue("50") int batchSize,
+
+        // number of expenses per page when listing expenses page by page, unless the request asks for another size
+        @DefaultValue("500") int pageSize,
+
+        // largest page size a request can ask for
+        @DefaultValue("5000") int maxPageSize,
+
+        // upper bound of the monthly expenses cache, counted in cached expenses (every month counts at least once)
+        @DefaultValue("100000") long monthCacheMaxExpenses,
+
+        // most months a trend request can span
+        @DefaultValue("120") int maxTrendMonths,
+
+        // whether expense writes update the monthly totals themselves, or leave a delta for AggregateExpenseFolder
+        @DefaultValue("sync") AggregateMode aggregateMode,
+
+        // most deltas folded in one transaction
+        @DefaultValue("1000") int aggregateFoldBatchSize) {
+
+    public enum AggregateMode {
+
+        // the monthly total is updated in the transaction of the expense write
+        SYNC,
+
+        // the expense write appends a delta to the outbox, which is folded into the monthly total in the background
+        OUTBOX
+    }
+}
@@ -0,0 +1,195 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwe;
+import io.jsonwebtoken.JweHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.InvalidKeyException;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Encrypts and decrypts the JWTs of the application. The keys are decoded and the parser is built once, and both
+ * are safe to share between threads.
+ * <p>
+ * New tokens are encrypted with the active key and carry its key id in the kid header, tokens are decrypted with the
+ * key matching their kid. Keys can be rotated at runtime through {@link JwtKeysEndpoint}: the previous active key stays
+ * available for decryption until it is retired, so tokens issued before the rotation remain valid until they expire.
+ */
+@Slf4j
+@Component
+public class JwtCodec {
+
+    private final JwtParser jwtParser;
+
+    // replaced as a whole on rotation, so that readers always see a consistent set of keys
+    private volatile KeyRing keyRing;
+
+    public JwtCodec(JwtProperties jwtProperties) {
+
+        Map<String, SecretKey> keys = new HashMap<>();
+
+        jwtProperties.previousKeys().forEach((keyId, secret) -> keys.put(keyId, decodeKey(secret)));
+        keys.put(jwtProperties.keyId(), decodeKey(jwtProperties.secret()));
+
+        this.keyRing = new KeyRing(jwtProperties.keyId(), keys);
+
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new KeyRingLocator())
+                .build();
+    }
+
+    public String encode(Map<String, ?> claims, Date expiration) {
+
+        KeyRing currentKeyRing = keyRing;
+
+        return Jwts.builder()
+                .header().keyId(currentKeyRing.activeKeyId()).and()
+                .subject(ApplicationConstants.JWT_SUBJECT)
+                .claims(claims)
+                .expiration(expiration)
+                .encryptWith(currentKeyRing.activeKey(), Jwts.ENC.A128CBC_HS256)
+                .compact();
+    }
+
+    /**
+     * @throws io.jsonwebtoken.JwtException if the token is expired, can not be decrypted or was encrypted with an unknown key
+     */
+    public Claims decode(String token) {
+        return jwtParser.parseEncryptedClaims(token).getPayload();
+    }
+
+    /**
+     * Same as {@link #decode(String)}, but only keeps the claims the application uses and the key id of the token.
+     */
+    public VerifiedToken verify(String token) {
+
+        Jwe<Claims> jwe = jwtParser.parseEncryptedClaims(token);
+
+        Claims claims = jwe.getPayload();
+
+        String keyId = (jwe.getHeader().getKeyId() != null) ? jwe.getHeader().getKeyId() : keyRing.activeKeyId();
+
+        return new VerifiedToken(
+                claims.get(ApplicationConstants.JWT_EMAIL_CLAIM, String.class),
+                claims.get(ApplicationConstants.JWT_USER_ID_CLAIM, Long.class),
+                claims.get(ApplicationConstants.JWT_TOKEN_VERSION_CLAIM, Integer.class),
+                keyId,
+                claims.getExpiration().toInstant());
+    }
+
+    public String activeKeyId() {
+        return keyRing.activeKeyId();
+    }
+
+    /**
+     * @return the ids of the keys whose tokens are accepted, the active one included
+     */
+    public Set<String> keyIds() {
+        return new TreeSet<>(keyRing.keys().keySet());
+    }
+
+    /**
+     * @return whether the given base64 encoded secret is the one of the active key, compared in constant time
+     */
+    public boolean isActiveSecret(String secret) {
+
+        byte[] decodedSecret;
+
+        try {
+            decodedSecret = Decoders.BASE64.decode(secret);
+        } catch (RuntimeException exception) {
+            return false;
+        }
+
+        return MessageDigest.isEqual(keyRing.activeKey().getEncoded(), decodedSecret);
+    }
+
+    /**
+     * @return whether tokens encrypted with the given key are still accepted
+     */
+    public boolean acceptsKey(String keyId) {
+        return keyRing.keys().containsKey(keyId);
+    }
+
+    /**
+     * Makes the given key the active key for new tokens, the previous active key is kept for decrypting existing tokens.
+     */
+    public synchronized void rotate(String keyId, String secret) {
+
+        Map<String, SecretKey> keys = new HashMap<>(keyRing.keys());
+        keys.put(keyId, decodeKey(secret));
+
+        keyRing = new KeyRing(keyId, keys);
+
+        log.info("JWT key rotated | active key id : {}", keyId);
+    }
+
+    /**
+     * Stops accepting tokens encrypted with the given key, the active key can not be retired.
+     */
+    public synchronized void retire(String keyId) {
+
+        if (keyId.equals(keyRing.activeKeyId())) {
+            throw new IllegalArgumentException("The active JWT key " + keyId + " can not be retired");
+        }
+
+        Map<String, SecretKey> keys = new HashMap<>(keyRing.keys());
+        keys.remove(keyId);
+
+        keyRing = new KeyRing(keyRing.activeKeyId(), keys);
+
+        log.info("JWT key retired | key id : {}", keyId);
+    }
+
+    private static SecretKey decodeKey(String secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+
+    private record KeyRing(String activeKeyId, Map<String, SecretKey> keys) {
+
+        KeyRing {
+            keys = Map.copyOf(keys);
+        }
+
+        SecretKey activeKey() {
+            return keys.get(activeKeyId);
+        }
+    }
+
+    private class KeyRingLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JweHeader header) {
+
+            KeyRing currentKeyRing = keyRing;
+
+            // tokens issued before key ids were introduced do not have a kid
+            if (header.getKeyId() == null) {
+                return currentKeyRing.activeKey();
+            }
+
+            SecretKey key = currentKeyRing.keys().get(header.getKeyId());
+
+            if (key == null) {
+                throw new InvalidKeyException("Unknown JWT key id : " + header.getKeyId());
+            }
+
+            return key;
+        }
+    }
+}
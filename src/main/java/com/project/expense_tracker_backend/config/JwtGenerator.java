@@ -1,51 +1,63 @@
 package com.project.expense_tracker_backend.config;
 
 import com.project.expense_tracker_backend.constants.ApplicationConstants;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @Service
 public class JwtGenerator {
 
-    @Value("${jwt.secret}")
-    private String JWT_SECRET;
+    @Autowired
+    private JwtCodec jwtCodec;
 
-    @Value("${jwt.expiration}")
-    private long JWT_EXPIRATION_SECONDS;
+    @Autowired
+    private JwtProperties jwtProperties;
 
-    @Cacheable(value = ApplicationConstants.JWT_CACHE_NAME, key = "#authentication.principal.toString()")
-    public TokenPair generateToken(Authentication authentication) {
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
-        SecretKey secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWT_SECRET));
+    // concurrent logins of the same user wait for one token to be built instead of each building their own
+    @Cacheable(value = ApplicationConstants.JWT_CACHE_NAME, key = "#authentication.principal.toString()", sync = true)
+    public TokenPair generateToken(Authentication authentication) {
 
         String email = authentication.getPrincipal().toString();
 
-        Map<String, String> claims = new HashMap<>();
+        // set by the authentication provider
+        long userId = (Long) authentication.getDetails();
+
+        Map<String, Object> claims = new HashMap<>();
 
-        claims.put("email", email);
+        claims.put(ApplicationConstants.JWT_EMAIL_CLAIM, email);
+        claims.put(ApplicationConstants.JWT_USER_ID_CLAIM, userId);
+        claims.put(ApplicationConstants.JWT_TOKEN_VERSION_CLAIM, tokenVersionRegistry.currentVersion(userId));
 
-        Date expirationDate = new Date(new Date().getTime() + JWT_EXPIRATION_SECONDS);
+        Date expirationDate = new Date(new Date().getTime() + jwtProperties.expiration());
 
-        String token = Jwts.builder()
-                .subject(ApplicationConstants.JWT_SUBJECT)
-                .claims(claims)
-                .expiration(expirationDate)
-                .encryptWith(secretKey, Jwts.ENC.A128CBC_HS256)
-                .compact();
+        String token = jwtCodec.encode(claims, expirationDate);
+
+        meterRegistry.counter("jwt.tokens.issued").increment();
 
         return new TokenPair(token, expirationDate);
     }
 
+    @CacheEvict(value = ApplicationConstants.JWT_CACHE_NAME)
+    public void evictToken(String email) {
+        log.info("Evicting token from cache : {}", email);
+    }
+
     public record TokenPair(String token, Date expiration) {
     }
 }
@@ -0,0 +1,73 @@
+package com.project.expense_tracker_backend.config;
+
+import io.jsonwebtoken.JwtException;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Rotates the JWT keys of this instance without a restart, on the management port only.
+ * <ul>
+ *     <li>{@code GET /actuator/jwtkeys} lists the active key id and the ids of the accepted keys</li>
+ *     <li>{@code POST /actuator/jwtkeys} with {@code keyId}, {@code secret} and {@code currentSecret} makes the new key
+ *     the active one</li>
+ *     <li>{@code POST /actuator/jwtkeys/<keyId>} with {@code currentSecret} retires a previous key</li>
+ * </ul>
+ * The endpoint needs no token, every change is authorized by the secret of the active key instead, which only the
+ * operators know. Keys changed here are not persisted: each instance is rotated on its own, and jwt.secret,
+ * jwt.key-id and jwt.previous-keys are updated to match for the next restart.
+ */
+@Component
+@Endpoint(id = "jwtkeys")
+@AllArgsConstructor
+public class JwtKeysEndpoint {
+
+    private static final int STATUS_FORBIDDEN = 403;
+
+    private JwtCodec jwtCodec;
+
+    @ReadOperation
+    public Map<String, Object> keys() {
+        return Map.of("activeKeyId", jwtCodec.activeKeyId(), "keyIds", jwtCodec.keyIds());
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> rotate(String keyId, String secret, String currentSecret) {
+
+        if (!jwtCodec.isActiveSecret(currentSecret)) {
+            return new WebEndpointResponse<>(STATUS_FORBIDDEN);
+        }
+
+        try {
+            jwtCodec.rotate(keyId, secret);
+        } catch (JwtException exception) {
+            // not base64, or too short for the encryption algorithm
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        return new WebEndpointResponse<>(keys());
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> retire(@Selector String keyId, String currentSecret) {
+
+        if (!jwtCodec.isActiveSecret(currentSecret)) {
+            return new WebEndpointResponse<>(STATUS_FORBIDDEN);
+        }
+
+        try {
+            jwtCodec.retire(keyId);
+        } catch (IllegalArgumentException exception) {
+            // the active key
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+
+        return new WebEndpointResponse<>(keys());
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.expense_tracker_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "jwt")
+public record JwtProperties(
+
+        // base64 encoded key that new tokens are encrypted with
+        String secret,
+
+        // key id of the secret, written to the kid header of new tokens
+        @DefaultValue("default") String keyId,
+
+        // base64 encoded keys by key id that were rotated out, tokens encrypted with them are still accepted
+        Map<String, String> previousKeys,
+
+        // token lifetime in milliseconds
+        long expiration,
+
+        // an issued token is handed out again on login until this many milliseconds before it expires
+        @DefaultValue("60000") long refreshMargin,
+
+        // maximum number of verified tokens remembered, so that repeated requests with a token skip decrypting it
+        @DefaultValue("10000") long verifiedTokenCacheSize,
+
+        // token versions are read from the users' password versions and kept for this many milliseconds, a password
+        // changed on another instance revokes the tokens here at the latest after this long
+        @DefaultValue("30000") long tokenVersionTtl) {
+
+    public JwtProperties {
+        previousKeys = (previousKeys == null) ? Map.of() : Map.copyOf(previousKeys);
+    }
+}
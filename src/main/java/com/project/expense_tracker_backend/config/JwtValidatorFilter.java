@@ -2,22 +2,17 @@ package com.project.expense_tracker_backend.config;
 
 import com.project.expense_tracker_backend.constants.ApplicationConstants;
 import com.project.expense_tracker_backend.dto.ErrorResponseDto;
-import com.project.expense_tracker_backend.exception.EmailNotFoundException;
-import com.project.expense_tracker_backend.model.User;
-import com.project.expense_tracker_backend.repository.UserRepository;
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -26,81 +21,111 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import tools.jackson.databind.ObjectMapper;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
 
 @Component
 @Slf4j
 public class JwtValidatorFilter extends OncePerRequestFilter {
 
-    @Value("${jwt.secret}")
-    private String JWT_SECRET;
+    private static final Pattern CORRELATION_ID_PATTERN = Pattern.compile("[A-Za-z0-9._-]{1,64}");
 
     @Autowired
-    private UserRepository userRepository;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    private Counter validTokens;
+
+    private Counter expiredTokens;
+
+    private Counter invalidTokens;
+
+    private Counter revokedTokens;
+
+    // the counters are registered once, so that counting a validation is not a meter lookup on every request
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        validTokens = jwtValidationCounter(meterRegistry, "valid");
+        expiredTokens = jwtValidationCounter(meterRegistry, "expired");
+        invalidTokens = jwtValidationCounter(meterRegistry, "invalid");
+        revokedTokens = jwtValidationCounter(meterRegistry, "revoked");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
+        String correlationId = getCorrelationId(request);
+
+        MDC.put(ApplicationConstants.MDC_CORRELATION_ID, correlationId);
+        response.setHeader(ApplicationConstants.CORRELATION_ID_HEADER, correlationId);
+
+        try {
+            authenticate(request, response, filterChain);
+        } finally {
+            MDC.remove(ApplicationConstants.MDC_CORRELATION_ID);
+            MDC.remove(ApplicationConstants.MDC_USER_ID);
+        }
+    }
+
+    private void authenticate(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
         String token = request.getHeader(ApplicationConstants.JWT_AUTH_HEADER);
 
-        if (token != null && token.startsWith("Bearer") && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (token != null && token.startsWith("Bearer") && !isWhitelisted(request)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
 
             token = token.substring(7);
 
-            SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWT_SECRET));
-
-            Claims claims;
+            VerifiedToken verifiedToken;
 
             try {
-                claims = Jwts.parser().decryptWith(key)
-                        .build()
-                        .parseEncryptedClaims(token)
-                        .getPayload();
+                verifiedToken = verifiedTokenCache.verify(token);
             } catch (ExpiredJwtException expiredJwtException) {
-                log.error("Expired Token received | {}", expiredJwtException.getLocalizedMessage());
+                expiredTokens.increment();
 
-                ErrorResponseDto errorResponseDto = new ErrorResponseDto(
-                        ApplicationConstants.STATUS_FAILURE,
-                        HttpStatus.BAD_REQUEST,
-                        request.getRequestURI(),
-                        List.of(expiredJwtException.getLocalizedMessage())
-                );
-
-                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                log.error("Expired Token received | {}", expiredJwtException.getLocalizedMessage());
 
-                response.getWriter().write(objectMapper.writeValueAsString(errorResponseDto));
+                writeErrorResponse(request, response, HttpStatus.BAD_REQUEST, expiredJwtException.getLocalizedMessage());
 
                 return;
             } catch (JwtException exception) {
+                invalidTokens.increment();
 
                 log.error("Invalid Token received | {}", exception.getLocalizedMessage());
 
-                ErrorResponseDto errorResponseDto = new ErrorResponseDto(
-                        ApplicationConstants.STATUS_FAILURE,
-                        HttpStatus.FORBIDDEN,
-                        request.getRequestURI(),
-                        List.of(exception.getLocalizedMessage())
-                );
+                writeErrorResponse(request, response, HttpStatus.FORBIDDEN, exception.getLocalizedMessage());
+
+                return;
+            }
 
-                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-                response.setStatus(HttpStatus.FORBIDDEN.value());
+            String email = verifiedToken.email();
+            Long userId = verifiedToken.userId();
+            Integer tokenVersion = verifiedToken.tokenVersion();
 
-                response.getWriter().write(objectMapper.writeValueAsString(errorResponseDto));
+            // the claims are trusted as they are, the token is only checked against the revoked token versions
+            if (userId == null || tokenVersion == null || !tokenVersionRegistry.isCurrent(userId, tokenVersion)) {
+
+                revokedTokens.increment();
+
+                log.error("Revoked Token received for email : {}", email);
+
+                writeErrorResponse(request, response, HttpStatus.FORBIDDEN, ApplicationConstants.JWT_REVOKED);
 
                 return;
             }
 
-            String email = claims.get("email").toString();
-            long userId = extractUserIdFromEmail(email);
+            validTokens.increment();
+
+            MDC.put(ApplicationConstants.MDC_USER_ID, userId.toString());
 
-            log.info("Email received from token: {}", email);
+            log.debug("Email received from token: {}", email);
 
             UsernamePasswordAuthenticationToken authenticationToken =
                     new UsernamePasswordAuthenticationToken(email, null, List.of());
@@ -111,23 +136,47 @@ public class JwtValidatorFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private long extractUserIdFromEmail(String email) {
+    private void writeErrorResponse(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                                    String errorMessage) throws IOException {
 
-        Optional<User> optionalUser = userRepository.findByEmail(email);
+        ErrorResponseDto errorResponseDto = new ErrorResponseDto(
+                ApplicationConstants.STATUS_FAILURE,
+                status,
+                request.getRequestURI(),
+                List.of(errorMessage)
+        );
 
-        if (optionalUser.isEmpty()) throw new EmailNotFoundException(ApplicationConstants.EMAIL_NOT_FOUND, email);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(status.value());
 
-        return optionalUser.get().getUserId();
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponseDto));
     }
 
-    @Override
-    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+    private static Counter jwtValidationCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(ApplicationConstants.JWT_VALIDATION_METRIC_NAME)
+                .description("Bearer tokens validated by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // the caller's correlation id is kept if it is safe to log as it is, otherwise the request gets a new one
+    private static String getCorrelationId(HttpServletRequest request) {
+
+        String correlationId = request.getHeader(ApplicationConstants.CORRELATION_ID_HEADER);
+
+        if (correlationId != null && CORRELATION_ID_PATTERN.matcher(correlationId).matches()) {
+            return correlationId;
+        }
+
+        return Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
 
-        List<String> whitelisted = List.of(ApplicationConstants.LOGIN_USER_API_PATH,
-                ApplicationConstants.REGISTER_USER_API_PATH);
+    // the public endpoints still get a correlation id, they just do not look at the token
+    private static boolean isWhitelisted(HttpServletRequest request) {
 
-        return whitelisted.contains(request.getServletPath());
+        String servletPath = request.getServletPath();
 
-//        return request.getServletPath().equals("/public/login");
+        return ApplicationConstants.LOGIN_USER_API_PATH.equals(servletPath)
+                || ApplicationConstants.REGISTER_USER_API_PATH.equals(servletPath);
     }
 }
@@ -0,0 +1,35 @@
+package com.project.expense_tracker_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "password-hashing")
+public record PasswordHashingProperties(
+
+        // threads hashing and matching passwords, 0 for one per available core
+        @DefaultValue("0") int threads,
+
+        // passwords waiting for a thread, beyond that logins, registrations and password changes are turned away
+        @DefaultValue("32") int queueCapacity,
+
+        // BCrypt cost of new hashes, 0 to measure at startup the cost that takes about targetVerifyTime to match
+        @DefaultValue("0") int strength,
+
+        @DefaultValue("50ms") Duration targetVerifyTime,
+
+        // bounds of the measured cost, whatever the hardware
+        @DefaultValue("10") int minStrength,
+
+        @DefaultValue("14") int maxStrength) {
+
+    public int resolvedThreads() {
+        return (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int resolvedStrength() {
+        return (strength > 0) ? strength
+                : AdaptiveBCryptPasswordEncoder.calibrateStrength(targetVerifyTime, minStrength, maxStrength);
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.model.User;
+import com.project.expense_tracker_backend.service.UserDetailsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Hashes the password of a user again after a successful login, when the stored hash was made with another algorithm or
+ * cost than new hashes are. It happens on a single background thread, so the login does not wait for a second hash,
+ * and a cost change takes at most one slot of the password hashing pool away from logins. When the queue is full the
+ * user is left as is, and rehashed on a later login.
+ */
+@Slf4j
+public class PasswordRehasher implements DisposableBean {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final UserDetailsService userDetailsService;
+
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    // users already waiting for a rehash, so that concurrent logins do not hash the same password again
+    private final Set<String> pendingEmails = ConcurrentHashMap.newKeySet();
+
+    public PasswordRehasher(PasswordEncoder passwordEncoder, UserDetailsService userDetailsService, int queueCapacity) {
+
+        this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+
+        this.threadPoolExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("password-rehash").daemon().factory());
+    }
+
+    public void rehashIfOutdated(User user, String rawPassword) {
+
+        String email = user.getEmail();
+
+        if (!passwordEncoder.upgradeEncoding(user.getPassword()) || !pendingEmails.add(email)) {
+            return;
+        }
+
+        try {
+            threadPoolExecutor.execute(() -> {
+                try {
+                    rehash(user, rawPassword);
+                } finally {
+                    pendingEmails.remove(email);
+                }
+            });
+        } catch (RejectedExecutionException rejectedExecutionException) {
+
+            pendingEmails.remove(email);
+
+            log.debug("Password rehash queue full, user_id = {} is rehashed on a later login", user.getUserId());
+        }
+    }
+
+    private void rehash(User user, String rawPassword) {
+
+        try {
+            if (userDetailsService.updateEncodedPassword(user, passwordEncoder.encode(rawPassword))) {
+                log.info("Password of user_id = {} rehashed", user.getUserId());
+            }
+        } catch (RuntimeException exception) {
+
+            // including a full password hashing queue, the next login tries again
+            log.warn("Password rehash of user_id = {} failed : {}", user.getUserId(), exception.getLocalizedMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        threadPoolExecutor.shutdownNow();
+    }
+}
@@ -1,6 +1,9 @@
 package com.project.expense_tracker_backend.config;
 
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
 import com.project.expense_tracker_backend.service.UserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
@@ -13,12 +16,13 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -33,13 +37,24 @@ public class ProjectSecurityConfig {
 
     private CustomCorsConfiguration corsConfiguration;
 
+    private PasswordHashingProperties passwordHashingProperties;
+
+    private MeterRegistry meterRegistry;
+
     @Bean
     SecurityFilterChain defaultSecurityFilterChain(HttpSecurity httpSecurity) throws Exception {
 
         httpSecurity.csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfiguration))
                 .authorizeHttpRequests(requests ->
-                        requests.requestMatchers("/public/**", "/h2-console/**", "/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        // streamed responses finish in an async dispatch of a request that was already authorized
+                        requests.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                                .requestMatchers("/public/**", "/h2-console/**", "/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                                // scraped by Prometheus, which does not log in. Only served on the management port
+                                // (management.server.port), the API port does not serve the actuator endpoints
+                                .requestMatchers("/actuator/prometheus").permitAll()
+                                // authorized by the secret of the active JWT key, see JwtKeysEndpoint
+                                .requestMatchers("/actuator/jwtkeys", "/actuator/jwtkeys/*").permitAll()
                                 .anyRequest().authenticated());
 
         httpSecurity.addFilterBefore(jwtValidatorFilter, UsernamePasswordAuthenticationFilter.class)
@@ -51,14 +66,30 @@ public class ProjectSecurityConfig {
         return httpSecurity.build();
     }
 
+    // BCrypt is deliberately slow, it runs on its own bounded pool instead of the request threads.
+    // Hashes are stored as {bcrypt}$2a$<cost>$..., the ones stored before without the prefix are BCrypt as well.
     @Bean
     PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+
+        PasswordEncoder bCryptPasswordEncoder = new AdaptiveBCryptPasswordEncoder(passwordHashingProperties.resolvedStrength());
+
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(
+                ApplicationConstants.PASSWORD_ENCODER_ID, Map.of(ApplicationConstants.PASSWORD_ENCODER_ID, bCryptPasswordEncoder));
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bCryptPasswordEncoder);
+
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder, passwordHashingProperties.resolvedThreads(),
+                passwordHashingProperties.queueCapacity(), meterRegistry);
+    }
+
+    @Bean
+    PasswordRehasher passwordRehasher() {
+        return new PasswordRehasher(passwordEncoder(), userDetailsService, passwordHashingProperties.queueCapacity());
     }
 
     @Bean
     AuthenticationProvider usernamePasswordAuthenticationProvider() {
-        return new UsernamePasswordAuthenticationProvider(passwordEncoder(), userDetailsService, cacheManager);
+        return new UsernamePasswordAuthenticationProvider(passwordEncoder(), userDetailsService, cacheManager,
+                passwordRehasher());
     }
 
     @Bean
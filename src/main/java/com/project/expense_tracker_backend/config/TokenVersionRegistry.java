@@ -0,0 +1,65 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Current token version of the users, which is the persisted password version of the user, so that a revocation
+ * survives a restart and is seen by every instance. Tokens carry the version they were issued with and are only
+ * accepted while it is still the current version.
+ * <p>
+ * The versions are cached for {@link JwtProperties#tokenVersionTtl()}, a password changed on this instance evicts
+ * the version right away, one changed on another instance once the cached version expires.
+ */
+@Slf4j
+@Component
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+
+    private final Cache cache;
+
+    public TokenVersionRegistry(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.cache = cacheManager.getCache(ApplicationConstants.TOKEN_VERSION_CACHE_NAME);
+    }
+
+    /**
+     * @return the current token version of the user, null if there is no such user
+     */
+    public Integer currentVersion(long userId) {
+
+        if (cache == null) {
+            return loadVersion(userId);
+        }
+
+        return cache.get(userId, () -> loadVersion(userId));
+    }
+
+    public boolean isCurrent(long userId, int tokenVersion) {
+
+        Integer currentVersion = currentVersion(userId);
+
+        return currentVersion != null && currentVersion == tokenVersion;
+    }
+
+    /**
+     * To be called once the incremented password version of the user is saved.
+     */
+    public void revokeTokens(long userId) {
+
+        if (cache != null) {
+            cache.evict(userId);
+        }
+
+        log.info("Tokens revoked for user_id = {} | current token version : {}", userId, currentVersion(userId));
+    }
+
+    private Integer loadVersion(long userId) {
+        return userRepository.findPasswordVersionById(userId).orElse(null);
+    }
+}
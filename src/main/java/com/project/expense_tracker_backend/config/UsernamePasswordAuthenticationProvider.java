@@ -12,6 +12,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Objects;
+
 public class UsernamePasswordAuthenticationProvider implements AuthenticationProvider {
 
     private final PasswordEncoder passwordEncoder;
@@ -20,10 +22,14 @@ public class UsernamePasswordAuthenticationProvider implements AuthenticationPro
 
     private final CacheManager cacheManager;
 
-    public UsernamePasswordAuthenticationProvider(PasswordEncoder passwordEncoder, UserDetailsService userDetailsService, CacheManager cacheManager) {
+    private final PasswordRehasher passwordRehasher;
+
+    public UsernamePasswordAuthenticationProvider(PasswordEncoder passwordEncoder, UserDetailsService userDetailsService,
+                                                  CacheManager cacheManager, PasswordRehasher passwordRehasher) {
         this.passwordEncoder = passwordEncoder;
         this.userDetailsService = userDetailsService;
         this.cacheManager = cacheManager;
+        this.passwordRehasher = passwordRehasher;
     }
 
     @Override
@@ -32,30 +38,36 @@ public class UsernamePasswordAuthenticationProvider implements AuthenticationPro
 
         User registeredUser = fetchUserFromUserDetailsCache(email);
 
-        boolean cacheCalled = true;
-
         if (registeredUser == null) {
-            cacheCalled = false;
+
             registeredUser = userDetailsService.loadUserByUsername(email);
-        }
 
-        try {
             checkValidAuthentication(authentication, registeredUser);
-        } catch (BadCredentialsException exception) {
 
-            if (!cacheCalled) {
-                throw new BadCredentialsException(exception.getMessage());
+        } else if (!passwordEncoder.matches(authentication.getCredentials().toString(), registeredUser.getPassword())) {
+
+            // the password is only matched a second time if the cached one is stale, which the password version tells
+            // without hashing again. Otherwise a wrong password would cost two BCrypt rounds.
+            if (Objects.equals(userDetailsService.findPasswordVersion(email), registeredUser.getPasswordVersion())) {
+                throw new BadCredentialsException(ApplicationConstants.BAD_CREDENTIALS);
             }
 
             // evict the user from the cache and retrieve the User from the DB to get the latest password
             userDetailsService.evictUserFromCache(email);
             registeredUser = userDetailsService.loadUserByUsername(email);
 
-            // try to authenticate again, if it still fails, then throw exception
             checkValidAuthentication(authentication, registeredUser);
         }
 
-        return new UsernamePasswordAuthenticationToken(email, null);
+        // the password is known to be right only now, a hash with an outdated cost is replaced in the background
+        passwordRehasher.rehashIfOutdated(registeredUser, authentication.getCredentials().toString());
+
+        UsernamePasswordAuthenticationToken authenticatedUser = new UsernamePasswordAuthenticationToken(email, null);
+
+        // the user id goes into the token, so that requests do not have to look the user up again
+        authenticatedUser.setDetails(registeredUser.getUserId());
+
+        return authenticatedUser;
 
     }
 
@@ -0,0 +1,9 @@
+package com.project.expense_tracker_backend.config;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token that was successfully decrypted, together with the id of the key it was encrypted with.
+ */
+public record VerifiedToken(String email, Long userId, Integer tokenVersion, String keyId, Instant expiration) {
+}
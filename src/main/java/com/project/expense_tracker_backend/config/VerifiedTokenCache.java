@@ -0,0 +1,85 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies tokens through {@link JwtCodec}, remembering the result by the SHA-256 digest of the token until the token
+ * expires, so that a client sending the same token again does not pay for decrypting it again.
+ * <p>
+ * A cached token is only used as long as the key it was encrypted with is still accepted, the token version still
+ * has to be checked by the caller.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtCodec jwtCodec;
+
+    private final Cache cache;
+
+    private final Timer decryptionTimer;
+
+    private final Counter decryptionTimeSaved;
+
+    public VerifiedTokenCache(JwtCodec jwtCodec, CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.jwtCodec = jwtCodec;
+        this.cache = cacheManager.getCache(ApplicationConstants.VERIFIED_TOKEN_CACHE_NAME);
+        this.decryptionTimer = Timer.builder("jwt.decryption")
+                .description("Time spent decrypting and verifying tokens that were not cached")
+                .register(meterRegistry);
+        this.decryptionTimeSaved = Counter.builder("jwt.decryption.saved")
+                .description("Decryption time saved by verified token cache hits, estimated from the mean decryption time")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws io.jsonwebtoken.JwtException if the token is expired, can not be decrypted or was encrypted with an unknown key
+     */
+    public VerifiedToken verify(String token) {
+
+        if (cache == null) {
+            return jwtCodec.verify(token);
+        }
+
+        String tokenDigest = digest(token);
+
+        VerifiedToken verifiedToken = cache.get(tokenDigest, VerifiedToken.class);
+
+        if (verifiedToken != null && jwtCodec.acceptsKey(verifiedToken.keyId())
+                && verifiedToken.expiration().isAfter(Instant.now())) {
+
+            decryptionTimeSaved.increment(decryptionTimer.mean(TimeUnit.SECONDS));
+            return verifiedToken;
+        }
+
+        verifiedToken = decryptionTimer.record(() -> jwtCodec.verify(token));
+
+        cache.put(tokenDigest, verifiedToken);
+
+        return verifiedToken;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException exception) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(exception);
+        }
+    }
+}
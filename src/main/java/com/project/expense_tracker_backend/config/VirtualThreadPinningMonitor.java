@@ -0,0 +1,95 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread for longer than a threshold, typically by blocking
+ * inside a synchronized block of the application or of a library. Every pinning is timed and logged with the frames
+ * where it happened. Only runs when virtual threads are enabled.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // the threshold JFR uses for the event by default
+    static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Timer pinnedTimer;
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinnedTimer = Timer.builder(ApplicationConstants.VIRTUAL_THREAD_PINNED_METRIC_NAME)
+                .description("Virtual threads pinned to their carrier thread for longer than " + PINNED_THRESHOLD.toMillis() + " ms")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+
+        recordingStream = new RecordingStream();
+
+        recordingStream.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+
+        recordingStream.startAsync();
+
+        log.info("Monitoring virtual threads pinned for longer than {} ms", PINNED_THRESHOLD.toMillis());
+    }
+
+    @Override
+    public void stop() {
+
+        recordingStream.close();
+        recordingStream = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+
+        pinnedTimer.record(event.getDuration());
+
+        log.warn("Virtual thread pinned for {} ms | {}", event.getDuration().toMillis(), frames(event.getStackTrace()));
+    }
+
+    // the frames of the JDK's own continuation handling are skipped, they are the same for every pinning
+    private static String frames(RecordedStackTrace stackTrace) {
+
+        if (stackTrace == null) {
+            return "no stack trace";
+        }
+
+        return stackTrace.getFrames().stream()
+                .filter(frame -> !frame.getMethod().getType().getName().startsWith("jdk.internal."))
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::frame)
+                .collect(Collectors.joining(" <- "));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -6,8 +6,14 @@ public class ApplicationConstants {
     public static final String REQUEST_USER_ID_ATTRIBUTE = "userId";
     public static final String EMAIL_NOT_FOUND = "User with email %s does not exists";
     public static final String BAD_CREDENTIALS = "Incorrect password provided";
+    public static final String PASSWORD_HASHING_BUSY = "Too many password checks in progress, please try again shortly";
+    public static final String PASSWORD_HASHING_RETRY_AFTER_SECONDS = "1";
     public static final String JWT_SUBJECT = "Expense Tracker App";
     public static final String JWT_AUTH_HEADER = "Authorization";
+    public static final String JWT_EMAIL_CLAIM = "email";
+    public static final String JWT_USER_ID_CLAIM = "userId";
+    public static final String JWT_TOKEN_VERSION_CLAIM = "tokenVersion";
+    public static final String JWT_REVOKED = "Token has been revoked, please login again";
     public static final String STATUS_FAILURE = "Failed";
     public static final String STATUS_SUCCESS = "Success";
     public static final String USER_REGISTRATION_SUCCESSFUL = "User successfully registered";
@@ -16,11 +22,35 @@ public class ApplicationConstants {
     public static final String EMAIL_ALREADY_EXISTS = "%s email already exists";
     public static final String YEAR_MONTH_NOT_VALID = "%s is not a valid year-month. Required Format : yyyy-mm";
     public static final String EXPENSE_NOT_FOUND = "Expense with expense id : %s, does not exists";
+    public static final String EXPENSE_CURSOR_NOT_VALID = "%s is not a valid cursor";
+    public static final String EXPENSE_RANGE_INCOMPLETE = "Both from and to dates are required for a date range";
+    public static final String EXPENSE_RANGE_NOT_VALID = "From date %s is after to date %s";
+    public static final String EXPENSE_MONTH_RANGE_INCOMPLETE = "Both from and to months are required for a month range";
+    public static final String EXPENSE_MONTH_RANGE_NOT_VALID = "From month %s is after to month %s";
+    public static final String EXPENSE_MONTH_RANGE_TOO_LONG = "A month range can span at most %s months";
+    public static final String EXPENSE_PAGE_SIZE_NOT_VALID = "Page size must be between 1 and %s";
+    public static final String EXPENSE_PROPERTY_REQUIRED = "%s cannot be removed from an expense";
     public static final String EXPENSE_USER_NOT_MATCH = "Expense with expense id : %s, does not belong to user with user id : %s";
     public static final String USER_DETAILS_CACHE_NAME_BY_EMAIL = "user_details_email";
     public static final String USER_DETAILS_CACHE_NAME_BY_ID = "user_details_id";
     public static final String JWT_CACHE_NAME = "jwt_cache";
+    public static final String VERIFIED_TOKEN_CACHE_NAME = "verified_token_cache";
+    public static final String MONTHLY_EXPENSES_CACHE_NAME = "monthly_expenses";
+    public static final String TOKEN_VERSION_CACHE_NAME = "token_version";
+    public static final long MONTHLY_EXPENSES_LOAD_TIMEOUT_SECONDS = 30;
     public static final String PASSWORD_CHANGED = "Password changed successfully";
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    public static final String MDC_CORRELATION_ID = "correlationId";
+    public static final String MDC_USER_ID = "userId";
+    // one in this many events of a per-request log statement is logged
+    public static final int LOG_SAMPLE_RATE = 100;
+    public static final String SERVICE_METRIC_NAME = "expense.tracker.service";
+    public static final String JWT_VALIDATION_METRIC_NAME = "expense.tracker.jwt.validations";
+    public static final String CACHE_HIT_RATIO_METRIC_NAME = "cache.hit.ratio";
+    public static final String VIRTUAL_THREAD_PINNED_METRIC_NAME = "expense.tracker.virtual.threads.pinned";
+    public static final String PASSWORD_HASHING_EXECUTOR_NAME = "password.hashing";
+    public static final String PASSWORD_HASHING_REJECTED_METRIC_NAME = "expense.tracker.password.hashing.rejected";
+    public static final String PASSWORD_ENCODER_ID = "bcrypt";
     private ApplicationConstants() {
     }
 
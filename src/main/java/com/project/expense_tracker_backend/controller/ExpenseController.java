@@ -1,8 +1,12 @@
 package com.project.expense_tracker_backend.controller;
 
 import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.dto.CategoryExpenseDto;
+import com.project.expense_tracker_backend.dto.ExpenseCursor;
+import com.project.expense_tracker_backend.dto.ExpensePageRequest;
 import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
 import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
+import com.project.expense_tracker_backend.dto.MonthlyExpenseDto;
 import com.project.expense_tracker_backend.dto.UserExpensesResponse;
 import com.project.expense_tracker_backend.exception.ExpenseNotFoundException;
 import com.project.expense_tracker_backend.exception.UserNotFoundException;
@@ -11,10 +15,16 @@ import com.project.expense_tracker_backend.service.IExpenseService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
 
+import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 
@@ -26,6 +36,8 @@ public class ExpenseController {
 
     private IExpenseService expenseService;
 
+    private ObjectMapper objectMapper;
+
     @GetMapping("/expenses")
     public ResponseEntity<UserExpensesResponse<List<ExpenseResponseDto>>> getUserExpenses(
             @RequestParam(required = false) String yearMonth, HttpServletRequest request) {
@@ -45,6 +57,93 @@ public class ExpenseController {
         }
     }
 
+    /**
+     * Total per category for a month, or for the months from and to (both included, formatted as yyyy-mm).
+     */
+    @GetMapping("/expenses/categories")
+    public ResponseEntity<List<CategoryExpenseDto>> getCategoryExpenses(
+            @RequestParam(required = false) String yearMonth,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            HttpServletRequest request) {
+
+        long userId = Long.parseLong(request.getAttribute(ApplicationConstants.REQUEST_USER_ID_ATTRIBUTE).toString());
+
+        try {
+            return ResponseEntity.ok(expenseService.getCategoryExpenses(yearMonth, from, to, userId));
+
+        } catch (DateTimeParseException dateTimeParseException) {
+            log.error("ExpenseController | getCategoryExpenses | Exception : {}", dateTimeParseException.getLocalizedMessage());
+            throw new YearMonthParseException(
+                    String.format(ApplicationConstants.YEAR_MONTH_NOT_VALID, dateTimeParseException.getParsedString()));
+        }
+    }
+
+    /**
+     * Total of every month from and to (both included, formatted as yyyy-mm, the last 12 months when not given),
+     * with 0 for the months without expenses.
+     */
+    @GetMapping("/expenses/trend")
+    public ResponseEntity<List<MonthlyExpenseDto>> getMonthlyTrend(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            HttpServletRequest request) {
+
+        long userId = Long.parseLong(request.getAttribute(ApplicationConstants.REQUEST_USER_ID_ATTRIBUTE).toString());
+
+        try {
+            return ResponseEntity.ok(expenseService.getMonthlyTrend(from, to, userId));
+
+        } catch (DateTimeParseException dateTimeParseException) {
+            log.error("ExpenseController | getMonthlyTrend | Exception : {}", dateTimeParseException.getLocalizedMessage());
+            throw new YearMonthParseException(
+                    String.format(ApplicationConstants.YEAR_MONTH_NOT_VALID, dateTimeParseException.getParsedString()));
+        }
+    }
+
+    /**
+     * Expenses of a month (or of the date range between from and to) one page at a time, ordered by date.
+     * The page is written to the response while it is read, pass the returned nextCursor to get the next page.
+     */
+    @GetMapping("/expenses/page")
+    public ResponseEntity<StreamingResponseBody> getUserExpensePage(
+            @RequestParam(required = false) String yearMonth,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            HttpServletRequest request) {
+
+        long userId = Long.parseLong(request.getAttribute(ApplicationConstants.REQUEST_USER_ID_ATTRIBUTE).toString());
+
+        ExpensePageRequest pageRequest;
+
+        try {
+            pageRequest = expenseService.createExpensePageRequest(yearMonth, from, to, cursor, size);
+        } catch (DateTimeParseException dateTimeParseException) {
+            log.error("ExpenseController | getUserExpensePage | Exception : {}", dateTimeParseException.getLocalizedMessage());
+            throw new YearMonthParseException(String.format(ApplicationConstants.YEAR_MONTH_NOT_VALID, yearMonth));
+        }
+
+        StreamingResponseBody responseBody = outputStream -> {
+
+            try (JsonGenerator jsonGenerator = objectMapper.createGenerator(outputStream)) {
+
+                jsonGenerator.writeStartObject();
+                jsonGenerator.writeName("userExpenses");
+                jsonGenerator.writeStartArray();
+
+                ExpenseCursor nextCursor = expenseService.streamUserExpenses(userId, pageRequest, jsonGenerator::writePOJO);
+
+                jsonGenerator.writeEndArray();
+                jsonGenerator.writeStringProperty("nextCursor", (nextCursor != null) ? nextCursor.encode() : null);
+                jsonGenerator.writeEndObject();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(responseBody);
+    }
+
     @PostMapping("/expenses")
     public ResponseEntity<List<ExpenseResponseDto>> saveUserExpenses(HttpServletRequest request,
                                                                      @RequestBody List<ExpenseRequestDto> userExpenses) {
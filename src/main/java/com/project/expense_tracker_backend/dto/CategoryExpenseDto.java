@@ -0,0 +1,20 @@
+package com.project.expense_tracker_backend.dto;
+
+import com.project.expense_tracker_backend.util.MoneyUtil;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@Data
+public class CategoryExpenseDto {
+
+    // null for the expenses without a category
+    private String category;
+    private double amount;
+
+    // for the projection in AggregateCategoryExpenseRepository, which sums the amounts as stored, in minor units
+    public CategoryExpenseDto(String category, long amountInMinorUnits) {
+        this.category = category;
+        this.amount = MoneyUtil.toDecimal(amountInMinorUnits);
+    }
+}
@@ -0,0 +1,32 @@
+package com.project.expense_tracker_backend.dto;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.exception.InvalidExpenseQueryException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the list of a user's expenses ordered by (date, expenseId), the next page starts after this expense.
+ * Clients only see it as an opaque string.
+ */
+public record ExpenseCursor(LocalDate date, long expenseId) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + ":" + expenseId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExpenseCursor decode(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+
+            return new ExpenseCursor(LocalDate.parse(position[0]), Long.parseLong(position[1]));
+
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException exception) {
+            throw new InvalidExpenseQueryException(String.format(ApplicationConstants.EXPENSE_CURSOR_NOT_VALID, cursor));
+        }
+    }
+}
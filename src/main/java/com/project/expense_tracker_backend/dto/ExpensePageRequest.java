@@ -0,0 +1,9 @@
+package com.project.expense_tracker_backend.dto;
+
+import java.time.LocalDate;
+
+/**
+ * A page of a user's expenses between two dates (both inclusive), starting after the cursor if there is one.
+ */
+public record ExpensePageRequest(LocalDate fromDate, LocalDate toDate, ExpenseCursor after, int pageSize) {
+}
@@ -1,23 +1,83 @@
 package com.project.expense_tracker_backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.*;
 
 import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @JsonInclude(value = JsonInclude.Include.NON_NULL)
 public class ExpenseRequestDto {
 
     private String description;
 
-    private double amount;
+    private Double amount;
 
     private LocalDate date;
 
     private String categoryName;
+
+    // the properties that were set, so that a partial update can tell an absent property from an explicit null
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Set<Property> presentProperties = EnumSet.noneOf(Property.class);
+
+    // not a JSON creator, which would receive every absent property as null
+    @JsonCreator(mode = JsonCreator.Mode.DISABLED)
+    public ExpenseRequestDto(String description, Double amount, LocalDate date, String categoryName) {
+
+        setDescription(description);
+        setAmount(amount);
+        setDate(date);
+        setCategoryName(categoryName);
+    }
+
+    public void setDescription(String description) {
+
+        this.description = description;
+        presentProperties.add(Property.DESCRIPTION);
+    }
+
+    public void setAmount(Double amount) {
+
+        this.amount = amount;
+        presentProperties.add(Property.AMOUNT);
+    }
+
+    public void setDate(LocalDate date) {
+
+        this.date = date;
+        presentProperties.add(Property.DATE);
+    }
+
+    public void setCategoryName(String categoryName) {
+
+        this.categoryName = categoryName;
+        presentProperties.add(Property.CATEGORY_NAME);
+    }
+
+    public enum Property {
+
+        DESCRIPTION("description"),
+        AMOUNT("amount"),
+        DATE("date"),
+        CATEGORY_NAME("categoryName");
+
+        private final String jsonName;
+
+        Property(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String getJsonName() {
+            return jsonName;
+        }
+    }
 }
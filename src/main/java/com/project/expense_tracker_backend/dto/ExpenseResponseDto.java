@@ -1,5 +1,6 @@
 package com.project.expense_tracker_backend.dto;
 
+import com.project.expense_tracker_backend.util.MoneyUtil;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,4 +17,10 @@ public class ExpenseResponseDto {
     private double amount;
     private LocalDate date;
     private String category;
+
+    // for the projection in ExpenseRepository, which selects the amount as stored, in minor units. The amount comes last
+    // so that this constructor cannot be mistaken for the one taking a decimal amount
+    public ExpenseResponseDto(long id, String description, LocalDate date, String category, long amountInMinorUnits) {
+        this(id, description, MoneyUtil.toDecimal(amountInMinorUnits), date, category);
+    }
 }
@@ -0,0 +1,22 @@
+package com.project.expense_tracker_backend.dto;
+
+import com.project.expense_tracker_backend.util.DateUtil;
+import com.project.expense_tracker_backend.util.MoneyUtil;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+@NoArgsConstructor
+@Data
+public class MonthlyExpenseDto {
+
+    private YearMonth yearMonth;
+    private double amount;
+
+    // for the projection in AggregateExpenseRepository, which selects the period key and the amount in minor units
+    public MonthlyExpenseDto(int period, long amountInMinorUnits) {
+        this.yearMonth = DateUtil.fromPeriod(period);
+        this.amount = MoneyUtil.toDecimal(amountInMinorUnits);
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.expense_tracker_backend.dto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Expenses of a user for one month, together with the month's total, as kept in the monthly expenses cache.
+ */
+public record MonthlyExpenses(List<ExpenseResponseDto> expenses, Double totalMonthlyExpense) {
+
+    public MonthlyExpenses {
+        expenses = List.copyOf(expenses);
+    }
+
+    public record Key(long userId, YearMonth yearMonth) {
+    }
+}
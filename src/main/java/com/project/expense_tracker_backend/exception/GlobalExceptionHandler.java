@@ -3,6 +3,7 @@ package com.project.expense_tracker_backend.exception;
 import com.project.expense_tracker_backend.constants.ApplicationConstants;
 import com.project.expense_tracker_backend.dto.ErrorResponseDto;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -22,7 +23,10 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             UserNotFoundException.class,
             DataIntegrityViolationException.class,
             YearMonthParseException.class,
-            ExpenseNotFoundException.class
+            ExpenseNotFoundException.class,
+            InvalidExpenseQueryException.class,
+            InvalidExpenseUpdateException.class,
+            PasswordHashingRejectedException.class
     })
     public ResponseEntity<Object> handleEmailNotFoundOrBadCredentialsException(Exception ex, WebRequest request) throws Exception {
 
@@ -39,6 +43,12 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                     handleYearMonthParseException(yearMonthParseException, request);
             case ExpenseNotFoundException expenseNotFoundException ->
                     handleExpenseNotFoundException(expenseNotFoundException, request);
+            case InvalidExpenseQueryException invalidExpenseQueryException ->
+                    handleInvalidExpenseQueryException(invalidExpenseQueryException, request);
+            case InvalidExpenseUpdateException invalidExpenseUpdateException ->
+                    handleInvalidExpenseUpdateException(invalidExpenseUpdateException, request);
+            case PasswordHashingRejectedException passwordHashingRejectedException ->
+                    handlePasswordHashingRejectedException(passwordHashingRejectedException, request);
             case null, default -> throw ex;
         };
     }
@@ -69,6 +79,48 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponseDto);
     }
 
+    private ResponseEntity<Object> handleInvalidExpenseQueryException(
+            InvalidExpenseQueryException invalidExpenseQueryException, WebRequest request) {
+
+        ErrorResponseDto errorResponseDto = new ErrorResponseDto(
+                ApplicationConstants.STATUS_FAILURE,
+                HttpStatus.BAD_REQUEST,
+                request.getDescription(false),
+                List.of(invalidExpenseQueryException.getLocalizedMessage())
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponseDto);
+    }
+
+    private ResponseEntity<Object> handleInvalidExpenseUpdateException(
+            InvalidExpenseUpdateException invalidExpenseUpdateException, WebRequest request) {
+
+        ErrorResponseDto errorResponseDto = new ErrorResponseDto(
+                ApplicationConstants.STATUS_FAILURE,
+                HttpStatus.BAD_REQUEST,
+                request.getDescription(false),
+                List.of(invalidExpenseUpdateException.getLocalizedMessage())
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponseDto);
+    }
+
+    // the password hashing pool is saturated, the client is asked to come back instead of waiting in line
+    private ResponseEntity<Object> handlePasswordHashingRejectedException(
+            PasswordHashingRejectedException passwordHashingRejectedException, WebRequest request) {
+
+        ErrorResponseDto errorResponseDto = new ErrorResponseDto(
+                ApplicationConstants.STATUS_FAILURE,
+                HttpStatus.SERVICE_UNAVAILABLE,
+                request.getDescription(false),
+                List.of(passwordHashingRejectedException.getLocalizedMessage())
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, ApplicationConstants.PASSWORD_HASHING_RETRY_AFTER_SECONDS)
+                .body(errorResponseDto);
+    }
+
     private ResponseEntity<Object> handleYearMonthParseException(YearMonthParseException yearMonthParseException, WebRequest request) {
 
         ErrorResponseDto errorResponseDto = new ErrorResponseDto(
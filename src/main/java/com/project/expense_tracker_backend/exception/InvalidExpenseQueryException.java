@@ -0,0 +1,9 @@
+package com.project.expense_tracker_backend.exception;
+
+public class InvalidExpenseQueryException extends RuntimeException {
+
+    public InvalidExpenseQueryException(String message) {
+
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.project.expense_tracker_backend.exception;
+
+public class InvalidExpenseUpdateException extends RuntimeException {
+
+    public InvalidExpenseUpdateException(String message) {
+
+        super(message);
+    }
+}
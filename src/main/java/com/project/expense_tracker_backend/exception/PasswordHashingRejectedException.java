@@ -0,0 +1,9 @@
+package com.project.expense_tracker_backend.exception;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
 import com.project.expense_tracker_backend.model.Category;
 import com.project.expense_tracker_backend.model.Expense;
 import com.project.expense_tracker_backend.model.User;
+import com.project.expense_tracker_backend.util.MoneyUtil;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -15,14 +16,21 @@ public class ExpenseMapper {
 
     public List<ExpenseResponseDto> expenseToExpenseResponseMapper(List<Expense> expenses) {
 
-        return expenses.stream().map(expense -> new ExpenseResponseDto(
-                expense.getExpenseId(), expense.getDescription(), expense.getAmount(), expense.getDate(), expense.getCategory().getCategoryName()
-        )).collect(Collectors.toList());
+        return expenses.stream().map(this::expenseToExpenseResponseMapper).collect(Collectors.toList());
+    }
+
+    public ExpenseResponseDto expenseToExpenseResponseMapper(Expense expense) {
+
+        return new ExpenseResponseDto(
+                expense.getExpenseId(), expense.getDescription(), MoneyUtil.toDecimal(expense.getAmount()), expense.getDate(),
+                expense.getCategory() != null ? expense.getCategory().getCategoryName() : null
+        );
     }
 
     public Expense expenseRequestToExpenseMapper(Long expenseId, ExpenseRequestDto userExpense, Category currentCategory, User user) {
 
         return new Expense(expenseId, userExpense.getDescription(),
-                userExpense.getAmount(), userExpense.getDate(), currentCategory, user);
+                userExpense.getAmount() != null ? MoneyUtil.toMinorUnits(userExpense.getAmount()) : 0,
+                userExpense.getDate(), currentCategory, user);
     }
 }
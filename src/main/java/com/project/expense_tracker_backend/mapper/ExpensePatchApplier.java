@@ -0,0 +1,50 @@
+package com.project.expense_tracker_backend.mapper;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
+import com.project.expense_tracker_backend.exception.InvalidExpenseUpdateException;
+import com.project.expense_tracker_backend.model.Expense;
+import com.project.expense_tracker_backend.service.CategoryDictionary;
+import com.project.expense_tracker_backend.util.MoneyUtil;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies a partial update to an expense with JSON Merge Patch semantics: properties absent from the request are left
+ * unchanged, and a null removes the value, which only the description allows.
+ */
+@Component
+@AllArgsConstructor
+public class ExpensePatchApplier {
+
+    private final CategoryDictionary categoryDictionary;
+
+    public void applyPatch(ExpenseRequestDto patch, Expense expense) {
+
+        for (ExpenseRequestDto.Property property : patch.getPresentProperties()) {
+
+            switch (property) {
+                case DESCRIPTION -> expense.setDescription(patch.getDescription());
+                case AMOUNT -> expense.setAmount(MoneyUtil.toMinorUnits(required(property, patch.getAmount())));
+                case DATE -> expense.setDate(required(property, patch.getDate()));
+                case CATEGORY_NAME -> {
+                    String categoryName = required(property, patch.getCategoryName());
+
+                    if (expense.getCategory() == null || !categoryName.equals(expense.getCategory().getCategoryName())) {
+                        expense.setCategory(categoryDictionary.resolve(categoryName));
+                    }
+                }
+            }
+        }
+    }
+
+    private static <T> T required(ExpenseRequestDto.Property property, T value) {
+
+        if (value == null) {
+            throw new InvalidExpenseUpdateException(
+                    String.format(ApplicationConstants.EXPENSE_PROPERTY_REQUIRED, property.getJsonName()));
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,42 @@
+package com.project.expense_tracker_backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Month;
+
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_aggregate_category_expense_user_month_category",
+        columnNames = {"user_id", "expenseYear", "expenseMonth", "category_id"}))
+public class AggregateCategoryExpense {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", referencedColumnName = "userId")
+    private User user;
+
+    // null for the expenses without a category
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", referencedColumnName = "categoryId")
+    private Category category;
+
+    private Month expenseMonth;
+    private int expenseYear;
+
+    // generated by the database from the year and month, see DateUtil.toPeriod
+    @Column(insertable = false, updatable = false)
+    private int expensePeriod;
+
+    // in minor units, see MoneyUtil
+    private long amount;
+}
@@ -13,18 +13,24 @@ import java.time.Month;
 @NoArgsConstructor
 @Getter
 @Setter
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_aggregate_expense_user_month", columnNames = {"user_id", "expenseYear", "expenseMonth"}))
 public class AggregateExpense {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "userId")
     private User user;
 
     private Month expenseMonth;
     private int expenseYear;
 
-    private Double amount;
+    // generated by the database from the year and month, see DateUtil.toPeriod
+    @Column(insertable = false, updatable = false)
+    private int expensePeriod;
+
+    // in minor units, see MoneyUtil
+    private long amount;
 }
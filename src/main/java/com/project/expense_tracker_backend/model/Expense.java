@@ -14,22 +14,27 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @Getter
 @Setter
+@Table(indexes = @Index(name = "idx_expense_user_date", columnList = "user_id, date, expenseId"))
 public class Expense {
 
+    // sequence ids (with a pooled allocation) let Hibernate batch the inserts, which IDENTITY columns cannot
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "expense_seq", allocationSize = 50)
     @JsonIgnore
     private Long expenseId;
     private String description;
-    private Double amount;
+
+    // in minor units, see MoneyUtil
+    private long amount;
     private LocalDate date;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", referencedColumnName = "categoryId")
     private Category category;
 
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "userId")
     private User user;
 
@@ -31,6 +31,10 @@ public class User {
     @JsonIgnore
     private String password;
 
+    // incremented on every password change, see UsernamePasswordAuthenticationProvider
+    @JsonIgnore
+    private int passwordVersion;
+
     private String mobileNumber;
 
     @CreationTimestamp
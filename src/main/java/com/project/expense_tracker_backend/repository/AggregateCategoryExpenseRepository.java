@@ -0,0 +1,30 @@
+package com.project.expense_tracker_backend.repository;
+
+import com.project.expense_tracker_backend.dto.CategoryExpenseDto;
+import com.project.expense_tracker_backend.model.AggregateCategoryExpense;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AggregateCategoryExpenseRepository extends JpaRepository<AggregateCategoryExpense, Long>,
+        AggregateCategoryExpenseRepositoryCustom {
+
+    /**
+     * The user's total per category over the months from fromPeriod to toPeriod (both included, see DateUtil.toPeriod),
+     * largest first. Reads one row per category and month, however many expenses they are made of.
+     */
+    @Query("""
+            select new com.project.expense_tracker_backend.dto.CategoryExpenseDto(c.categoryName, sum(a.amount))
+            from AggregateCategoryExpense a left join a.category c
+            where a.user.userId = :userId and a.expensePeriod between :fromPeriod and :toPeriod
+            group by c.categoryName
+            having sum(a.amount) <> 0
+            order by sum(a.amount) desc, c.categoryName""")
+    List<CategoryExpenseDto> findCategoryTotalsByUserIdAndPeriodBetween(@Param("userId") long userId,
+                                                                        @Param("fromPeriod") int fromPeriod,
+                                                                        @Param("toPeriod") int toPeriod);
+}
@@ -0,0 +1,12 @@
+package com.project.expense_tracker_backend.repository;
+
+import java.time.YearMonth;
+
+public interface AggregateCategoryExpenseRepositoryCustom {
+
+    /**
+     * Atomically adds {@code delta} to the user's total for the category and month, creating the row if it does not
+     * exist yet. A null {@code categoryId} stands for the expenses without a category.
+     */
+    void addToCategoryAmount(long userId, Long categoryId, YearMonth yearMonth, long delta);
+}
@@ -0,0 +1,45 @@
+package com.project.expense_tracker_backend.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+
+@Slf4j
+@AllArgsConstructor
+public class AggregateCategoryExpenseRepositoryCustomImpl implements AggregateCategoryExpenseRepositoryCustom {
+
+    // IS NOT DISTINCT FROM, so that the expenses without a category also match their row
+    static final String UPSERT_CATEGORY_AMOUNT = """
+            MERGE INTO aggregate_category_expense a
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS INTEGER), CAST(? AS TINYINT), CAST(? AS BIGINT)))
+                AS d (user_id, category_id, expense_year, expense_month, amount)
+            ON a.user_id = d.user_id AND a.expense_year = d.expense_year AND a.expense_month = d.expense_month
+                AND a.category_id IS NOT DISTINCT FROM d.category_id
+            WHEN MATCHED THEN UPDATE SET amount = a.amount + d.amount
+            WHEN NOT MATCHED THEN INSERT (user_id, category_id, expense_year, expense_month, amount)
+                VALUES (d.user_id, d.category_id, d.expense_year, d.expense_month, d.amount)
+            """;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addToCategoryAmount(long userId, Long categoryId, YearMonth yearMonth, long delta) {
+
+        // expenseMonth is mapped as an ordinal, JANUARY = 0
+        Object[] parameters = {userId, categoryId, yearMonth.getYear(), yearMonth.getMonth().ordinal(), delta};
+
+        try {
+            jdbcTemplate.update(UPSERT_CATEGORY_AMOUNT, parameters);
+        } catch (DuplicateKeyException duplicateKeyException) {
+
+            // created by a concurrent transaction first, see AggregateExpenseRepositoryCustomImpl
+            log.info("Category aggregate for user_id = {}, category_id = {} and {} created concurrently, retrying",
+                    userId, categoryId, yearMonth);
+
+            jdbcTemplate.update(UPSERT_CATEGORY_AMOUNT, parameters);
+        }
+    }
+}
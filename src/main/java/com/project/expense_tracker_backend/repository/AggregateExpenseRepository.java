@@ -1,16 +1,33 @@
 package com.project.expense_tracker_backend.repository;
 
+import com.project.expense_tracker_backend.dto.MonthlyExpenseDto;
 import com.project.expense_tracker_backend.model.AggregateExpense;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Month;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AggregateExpenseRepository extends JpaRepository<AggregateExpense, Long> {
+public interface AggregateExpenseRepository extends JpaRepository<AggregateExpense, Long>, AggregateExpenseRepositoryCustom {
 
 //    Optional<AggregateExpense> findAggregateExpenseByUserUserIdAndExpenseMonth(long userId, Month expenseMonth);
 
     Optional<AggregateExpense> findAggregateExpenseByUserUserIdAndExpenseMonthAndExpenseYear(long userId, Month expenseMonth, int expenseYear);
+
+    /**
+     * The user's monthly totals from fromPeriod to toPeriod (both included, see DateUtil.toPeriod) in month order,
+     * as one range scan of idx_aggregate_expense_user_period. Months without a total are not returned.
+     */
+    @Query("""
+            select new com.project.expense_tracker_backend.dto.MonthlyExpenseDto(a.expensePeriod, a.amount)
+            from AggregateExpense a
+            where a.user.userId = :userId and a.expensePeriod between :fromPeriod and :toPeriod
+            order by a.expensePeriod""")
+    List<MonthlyExpenseDto> findMonthlyTotalsByUserIdAndPeriodBetween(@Param("userId") long userId,
+                                                                       @Param("fromPeriod") int fromPeriod,
+                                                                       @Param("toPeriod") int toPeriod);
 }
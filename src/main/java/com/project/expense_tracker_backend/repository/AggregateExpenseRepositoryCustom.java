@@ -0,0 +1,38 @@
+package com.project.expense_tracker_backend.repository;
+
+import com.project.expense_tracker_backend.dto.MonthlyExpenseDto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface AggregateExpenseRepositoryCustom {
+
+    /**
+     * Atomically adds {@code delta} to the user's total for the month, creating the row if it does not exist yet.
+     */
+    void addToMonthlyAmount(long userId, YearMonth yearMonth, long delta);
+
+    /**
+     * Records {@code delta} for the user's month in the outbox, to be added to the total by {@link #foldPendingDeltas}.
+     */
+    void appendMonthlyDelta(long userId, YearMonth yearMonth, long delta);
+
+    /**
+     * The user's total for the month with the deltas that are not folded yet added to it, or null if there is neither.
+     */
+    Long findMonthlyAmountWithPendingDeltas(long userId, YearMonth yearMonth);
+
+    /**
+     * Like {@link #findMonthlyAmountWithPendingDeltas} for each of the user's months from fromPeriod to toPeriod (both
+     * included, see DateUtil.toPeriod) in month order, read in one statement. Months with neither are not returned.
+     */
+    List<MonthlyExpenseDto> findMonthlyTotalsWithPendingDeltas(long userId, int fromPeriod, int toPeriod);
+
+    /**
+     * Adds up to {@code batchSize} of the oldest pending deltas to their monthly totals, one update per user and month,
+     * and removes them from the outbox. Must run in a transaction.
+     *
+     * @return the number of deltas folded
+     */
+    int foldPendingDeltas(int batchSize);
+}
@@ -0,0 +1,136 @@
+package com.project.expense_tracker_backend.repository;
+
+import com.project.expense_tracker_backend.dto.MonthlyExpenseDto;
+import com.project.expense_tracker_backend.util.DateUtil;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@AllArgsConstructor
+public class AggregateExpenseRepositoryCustomImpl implements AggregateExpenseRepositoryCustom {
+
+    static final String UPSERT_MONTHLY_AMOUNT = """
+            MERGE INTO aggregate_expense a
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS INTEGER), CAST(? AS TINYINT), CAST(? AS BIGINT)))
+                AS d (user_id, expense_year, expense_month, amount)
+            ON a.user_id = d.user_id AND a.expense_year = d.expense_year AND a.expense_month = d.expense_month
+            WHEN MATCHED THEN UPDATE SET amount = a.amount + d.amount
+            WHEN NOT MATCHED THEN INSERT (user_id, expense_year, expense_month, amount)
+                VALUES (d.user_id, d.expense_year, d.expense_month, d.amount)
+            """;
+
+    private static final String INSERT_MONTHLY_DELTA =
+            "INSERT INTO aggregate_expense_delta (user_id, expense_year, expense_month, amount) VALUES (?, ?, ?, ?)";
+
+    // the folded total and the pending deltas in one statement, so that both are read from the same snapshot. Read
+    // separately, a fold committed in between would be missing from both
+    static final String SUM_MONTHLY_AMOUNT_WITH_PENDING_DELTAS = """
+            SELECT SUM(amount)
+            FROM (SELECT amount FROM aggregate_expense WHERE user_id = ? AND expense_period = ?
+                  UNION ALL
+                  SELECT amount FROM aggregate_expense_delta WHERE user_id = ? AND expense_period = ?) monthly_amount
+            """;
+
+    static final String SUM_MONTHLY_AMOUNTS_WITH_PENDING_DELTAS = """
+            SELECT expense_period, SUM(amount) AS amount
+            FROM (SELECT expense_period, amount FROM aggregate_expense
+                  WHERE user_id = ? AND expense_period BETWEEN ? AND ?
+                  UNION ALL
+                  SELECT expense_period, amount FROM aggregate_expense_delta
+                  WHERE user_id = ? AND expense_period BETWEEN ? AND ?) monthly_amount
+            GROUP BY expense_period
+            ORDER BY expense_period
+            """;
+
+    // locked, so that a folder running on another instance does not fold the same deltas again
+    static final String SELECT_PENDING_DELTAS = """
+            SELECT delta_id, user_id, expense_year, expense_month, amount
+            FROM aggregate_expense_delta
+            ORDER BY delta_id
+            FETCH FIRST ? ROWS ONLY
+            FOR UPDATE
+            """;
+
+    static final String DELETE_DELTA = "DELETE FROM aggregate_expense_delta WHERE delta_id = ?";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addToMonthlyAmount(long userId, YearMonth yearMonth, long delta) {
+
+        // expenseMonth is mapped as an ordinal, JANUARY = 0
+        Object[] parameters = {userId, yearMonth.getYear(), yearMonth.getMonth().ordinal(), delta};
+
+        try {
+            jdbcTemplate.update(UPSERT_MONTHLY_AMOUNT, parameters);
+        } catch (DuplicateKeyException duplicateKeyException) {
+
+            // a concurrent transaction inserted the row for this month first. The failed statement does not abort
+            // the transaction, and running the merge again takes the WHEN MATCHED branch once that row is committed.
+            log.info("Monthly aggregate for user_id = {} and {} created concurrently, retrying", userId, yearMonth);
+
+            jdbcTemplate.update(UPSERT_MONTHLY_AMOUNT, parameters);
+        }
+    }
+
+    @Override
+    public void appendMonthlyDelta(long userId, YearMonth yearMonth, long delta) {
+        jdbcTemplate.update(INSERT_MONTHLY_DELTA, userId, yearMonth.getYear(), yearMonth.getMonth().ordinal(), delta);
+    }
+
+    @Override
+    public Long findMonthlyAmountWithPendingDeltas(long userId, YearMonth yearMonth) {
+
+        int period = DateUtil.toPeriod(yearMonth);
+
+        return jdbcTemplate.queryForObject(SUM_MONTHLY_AMOUNT_WITH_PENDING_DELTAS, Long.class, userId, period, userId, period);
+    }
+
+    @Override
+    public List<MonthlyExpenseDto> findMonthlyTotalsWithPendingDeltas(long userId, int fromPeriod, int toPeriod) {
+
+        return jdbcTemplate.query(SUM_MONTHLY_AMOUNTS_WITH_PENDING_DELTAS,
+                (resultSet, rowNum) -> new MonthlyExpenseDto(resultSet.getInt("expense_period"), resultSet.getLong("amount")),
+                userId, fromPeriod, toPeriod, userId, fromPeriod, toPeriod);
+    }
+
+    @Override
+    public int foldPendingDeltas(int batchSize) {
+
+        Map<PendingMonth, long[]> deltasPerMonth = new HashMap<>();
+        List<Object[]> foldedDeltaIds = new ArrayList<>(batchSize);
+
+        jdbcTemplate.query(SELECT_PENDING_DELTAS, (RowCallbackHandler) resultSet -> {
+
+            PendingMonth pendingMonth = new PendingMonth(resultSet.getLong("user_id"),
+                    YearMonth.of(resultSet.getInt("expense_year"), resultSet.getInt("expense_month") + 1));
+
+            deltasPerMonth.computeIfAbsent(pendingMonth, month -> new long[1])[0] += resultSet.getLong("amount");
+            foldedDeltaIds.add(new Object[]{resultSet.getLong("delta_id")});
+        }, batchSize);
+
+        // deltas that cancel each other out still have to be removed, but do not touch the total
+        deltasPerMonth.forEach((pendingMonth, delta) -> {
+            if (delta[0] != 0) {
+                addToMonthlyAmount(pendingMonth.userId(), pendingMonth.yearMonth(), delta[0]);
+            }
+        });
+
+        // exactly the deltas that were read, a delta committed in the meantime is left for the next fold
+        jdbcTemplate.batchUpdate(DELETE_DELTA, foldedDeltaIds);
+
+        return foldedDeltaIds.size();
+    }
+
+    private record PendingMonth(long userId, YearMonth yearMonth) {
+    }
+}
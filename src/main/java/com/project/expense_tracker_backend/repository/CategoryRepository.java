@@ -2,12 +2,20 @@ package com.project.expense_tracker_backend.repository;
 
 import com.project.expense_tracker_backend.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     Optional<Category> findByCategoryName(String categoryName);
+
+    // normalised_category_name is a generated, indexed column (see V3__expense_lookup_indexes.sql)
+    @Query(value = "select * from category where normalised_category_name in :normalisedNames", nativeQuery = true)
+    List<Category> findByNormalisedCategoryNameIn(@Param("normalisedNames") Collection<String> normalisedNames);
 }
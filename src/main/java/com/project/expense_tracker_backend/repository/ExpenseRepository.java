@@ -1,19 +1,57 @@
 package com.project.expense_tracker_backend.repository;
 
+import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
 import com.project.expense_tracker_backend.model.Expense;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
     List<Expense> findByUserUserId(long userId);
 
-    List<Expense> findByUserUserIdAndDateBetween(long userId, LocalDate startDate, LocalDate endDate);
+    /**
+     * The expenses of the user between the two dates, read straight into response DTOs with the category name joined
+     * in, so that neither the expenses nor their user are loaded into the persistence context.
+     */
+    @Query("""
+            select new com.project.expense_tracker_backend.dto.ExpenseResponseDto(
+                e.expenseId, e.description, e.date, c.categoryName, e.amount)
+            from Expense e left join e.category c
+            where e.user.userId = :userId and e.date between :fromDate and :toDate
+            order by e.date, e.expenseId""")
+    List<ExpenseResponseDto> findExpenseResponsesByUserIdAndDateBetween(@Param("userId") long userId,
+                                                                        @Param("fromDate") LocalDate fromDate,
+                                                                        @Param("toDate") LocalDate toDate);
+
+    // the associations are lazy, an update also needs the category to compare against and to respond with
+    @EntityGraph(attributePaths = "category")
+    Optional<Expense> findWithCategoryByExpenseId(long expenseId);
 
     Optional<Expense> findByExpenseIdAndUserUserId(long expenseId, long userId);
+
+    /**
+     * Expenses of the user between the two dates ordered by (date, expenseId), starting after the given expense.
+     * Seeks straight to the position instead of skipping rows like an offset would.
+     */
+    @Query("""
+            select e from Expense e left join fetch e.category
+            where e.user.userId = :userId and e.date between :fromDate and :toDate
+              and (e.date > :afterDate or (e.date = :afterDate and e.expenseId > :afterExpenseId))
+            order by e.date, e.expenseId""")
+    Stream<Expense> streamByUserUserIdAndDateBetweenAfter(@Param("userId") long userId,
+                                                         @Param("fromDate") LocalDate fromDate,
+                                                         @Param("toDate") LocalDate toDate,
+                                                         @Param("afterDate") LocalDate afterDate,
+                                                         @Param("afterExpenseId") long afterExpenseId,
+                                                         Limit limit);
 }
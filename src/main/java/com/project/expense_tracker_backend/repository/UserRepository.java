@@ -2,6 +2,9 @@ package com.project.expense_tracker_backend.repository;
 
 import com.project.expense_tracker_backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +13,22 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
+
+    // a single column through uk_user_details_email, without loading the user
+    @Query("select u.passwordVersion from User u where u.email = :email")
+    Optional<Integer> findPasswordVersionByEmail(@Param("email") String email);
+
+    @Query("select u.passwordVersion from User u where u.userId = :userId")
+    Optional<Integer> findPasswordVersionById(@Param("userId") long userId);
+
+    // only while the stored hash is still oldPassword, a password changed in the meantime is kept
+    @Modifying
+    @Query("update User u set u.password = :newPassword where u.userId = :userId and u.password = :oldPassword")
+    int updatePassword(@Param("userId") long userId, @Param("oldPassword") String oldPassword,
+                       @Param("newPassword") String newPassword);
+
+    // the version is incremented in the database, a user loaded before an earlier change can not reuse its version
+    @Modifying
+    @Query("update User u set u.password = :newPassword, u.passwordVersion = u.passwordVersion + 1 where u.userId = :userId")
+    int changePassword(@Param("userId") long userId, @Param("newPassword") String newPassword);
 }
@@ -0,0 +1,54 @@
+package com.project.expense_tracker_backend.service;
+
+import com.project.expense_tracker_backend.config.ExpenseProperties;
+import com.project.expense_tracker_backend.repository.AggregateExpenseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Folds the monthly deltas recorded by expense writes in outbox mode into the {@code AggregateExpense} totals.
+ * Each batch is folded in its own transaction, and batches are folded until the outbox is drained.
+ * A month read in the meantime still sees its pending deltas, so folding does not change what the API returns.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "expense.aggregate-mode", havingValue = "outbox")
+public class AggregateExpenseFolder {
+
+    private final AggregateExpenseRepository aggregateExpenseRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    public AggregateExpenseFolder(AggregateExpenseRepository aggregateExpenseRepository,
+                                  PlatformTransactionManager transactionManager, ExpenseProperties expenseProperties) {
+        this.aggregateExpenseRepository = aggregateExpenseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = expenseProperties.aggregateFoldBatchSize();
+    }
+
+    @Scheduled(fixedDelayString = "${expense.aggregate-fold-interval:1s}")
+    public void foldPendingDeltas() {
+
+        long startTime = System.nanoTime();
+
+        int foldedDeltas = 0;
+        int batchFoldedDeltas;
+
+        do {
+            batchFoldedDeltas = transactionTemplate.execute(status -> aggregateExpenseRepository.foldPendingDeltas(batchSize));
+            foldedDeltas += batchFoldedDeltas;
+        } while (batchFoldedDeltas == batchSize);
+
+        if (foldedDeltas > 0) {
+            log.info("foldPendingDeltas | {} deltas | {} us", foldedDeltas, (System.nanoTime() - startTime) / 1000);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.project.expense_tracker_backend.service;
+
+import com.project.expense_tracker_backend.model.Category;
+import com.project.expense_tracker_backend.repository.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory dictionary of categories keyed by their normalised name (trimmed, lower case).
+ * Categories are never deleted, so a cached entry can not go stale; names missing from the dictionary are
+ * looked up with a single IN query and the ones that still do not exist are inserted as one batch.
+ * Missing categories are created in a transaction of their own, with a connection of their own: callers resolve their
+ * categories before opening their transaction, so that a request never holds two connections of the pool at once.
+ */
+@Slf4j
+@Component
+public class CategoryDictionary {
+
+    private static final int MAX_CREATE_ATTEMPTS = 3;
+
+    private final CategoryRepository categoryRepository;
+
+    private final TransactionTemplate requiresNewTransaction;
+
+    private final ConcurrentMap<String, Category> categoriesByName = new ConcurrentHashMap<>();
+
+    public CategoryDictionary(CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public static String normalise(String categoryName) {
+        return categoryName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+
+        categoryRepository.findAll().forEach(this::register);
+
+        log.info("Category dictionary warmed up with {} categories", categoriesByName.size());
+    }
+
+    public Category resolve(String categoryName) {
+        return resolveAll(Collections.singleton(categoryName)).get(categoryName);
+    }
+
+    /**
+     * Resolves every distinct category name, creating the missing categories.
+     *
+     * @return the category for each of the given (non-null) names, keyed by the name as it was passed in
+     */
+    public Map<String, Category> resolveAll(Collection<String> categoryNames) {
+
+        Set<String> distinctCategoryNames = new HashSet<>(categoryNames);
+        distinctCategoryNames.remove(null);
+
+        Map<String, Category> resolvedCategories = new HashMap<>();
+
+        // normalised name -> name the category is created with, if it does not exist yet
+        Map<String, String> missingCategoryNames = new HashMap<>();
+
+        for (String categoryName : distinctCategoryNames) {
+
+            String normalisedName = normalise(categoryName);
+            Category category = categoriesByName.get(normalisedName);
+
+            if (category != null) {
+                resolvedCategories.put(categoryName, category);
+            } else {
+                missingCategoryNames.putIfAbsent(normalisedName, categoryName.trim());
+            }
+        }
+
+        if (!missingCategoryNames.isEmpty()) {
+
+            loadOrCreateCategories(missingCategoryNames);
+
+            for (String categoryName : distinctCategoryNames) {
+                resolvedCategories.computeIfAbsent(categoryName, name -> categoriesByName.get(normalise(name)));
+            }
+        }
+
+        return resolvedCategories;
+    }
+
+    private void loadOrCreateCategories(Map<String, String> missingCategoryNames) {
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // runs in its own transaction, so a unique constraint violation does not poison the caller's transaction
+                List<Category> categories = requiresNewTransaction.execute(status -> {
+
+                    List<Category> existingCategories =
+                            categoryRepository.findByNormalisedCategoryNameIn(missingCategoryNames.keySet());
+
+                    Set<String> existingNames = new HashSet<>();
+                    existingCategories.forEach(category -> existingNames.add(normalise(category.getCategoryName())));
+
+                    List<Category> newCategories = new ArrayList<>();
+
+                    missingCategoryNames.forEach((normalisedName, categoryName) -> {
+                        if (!existingNames.contains(normalisedName)) {
+                            newCategories.add(new Category(null, categoryName));
+                        }
+                    });
+
+                    List<Category> loadedCategories = new ArrayList<>(existingCategories);
+
+                    if (!newCategories.isEmpty()) {
+                        loadedCategories.addAll(categoryRepository.saveAllAndFlush(newCategories));
+                    }
+
+                    return loadedCategories;
+                });
+
+                // only publish categories once their transaction has committed
+                Objects.requireNonNull(categories).forEach(this::register);
+                return;
+
+            } catch (DataIntegrityViolationException exception) {
+
+                // another request or node created one of the categories in the meantime, it is loaded on the next attempt
+                if (attempt == MAX_CREATE_ATTEMPTS) {
+                    throw exception;
+                }
+
+                log.warn("Concurrent category creation detected for {} | attempt {}", missingCategoryNames.values(), attempt);
+            }
+        }
+    }
+
+    private void register(Category category) {
+        if (category.getCategoryName() != null) {
+            categoriesByName.putIfAbsent(normalise(category.getCategoryName()), category);
+        }
+    }
+}
@@ -1,14 +1,30 @@
 package com.project.expense_tracker_backend.service;
 
+import com.project.expense_tracker_backend.dto.CategoryExpenseDto;
+import com.project.expense_tracker_backend.dto.ExpenseCursor;
+import com.project.expense_tracker_backend.dto.ExpensePageRequest;
 import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
 import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
+import com.project.expense_tracker_backend.dto.MonthlyExpenseDto;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IExpenseService {
 
     List<ExpenseResponseDto> getUserExpenses(String yearMonth, long userId);
 
+    ExpensePageRequest createExpensePageRequest(String yearMonth, LocalDate fromDate, LocalDate toDate,
+                                                String cursor, Integer pageSize);
+
+    /**
+     * Hands the expenses of the requested page to the consumer one by one, as they are read from the database.
+     *
+     * @return the cursor of the next page, or null if this was the last page
+     */
+    ExpenseCursor streamUserExpenses(long userId, ExpensePageRequest pageRequest, Consumer<ExpenseResponseDto> consumer);
+
     List<ExpenseResponseDto> saveUserExpenses(long userId, List<ExpenseRequestDto> userExpenses);
 
     ExpenseResponseDto updateUserExpense(long userId, long expenseId, ExpenseRequestDto expenseRequestDto);
@@ -16,4 +32,16 @@ public interface IExpenseService {
     void deleteUserExpense(long expenseId, long userId);
 
     Double getTotalMonthlyUserExpense(String yearMonth, long userId);
+
+    /**
+     * The user's total per category for the month, or for the months from fromYearMonth to toYearMonth when given,
+     * read from the category aggregates only.
+     */
+    List<CategoryExpenseDto> getCategoryExpenses(String yearMonth, String fromYearMonth, String toYearMonth, long userId);
+
+    /**
+     * The user's total of every month from fromYearMonth to toYearMonth (the last 12 months when not given), in month
+     * order, with 0 for the months without expenses.
+     */
+    List<MonthlyExpenseDto> getMonthlyTrend(String fromYearMonth, String toYearMonth, long userId);
 }
@@ -9,8 +9,10 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Slf4j
 @Service
@@ -36,6 +38,40 @@ public class UserDetailsService {
                 .orElseThrow(() -> new UserNotFoundException(ApplicationConstants.USER_DOES_NOT_EXIST, userId));
     }
 
+    /**
+     * The current password version of the user, read from the database, or null if there is no user with this email.
+     */
+    public Integer findPasswordVersion(String email) {
+        return userRepository.findPasswordVersionByEmail(email).orElse(null);
+    }
+
+    /**
+     * Replaces the stored hash of the user's password by another hash of the same password, unless the password was
+     * changed since the user was loaded. The password version stays, as the same password is still the valid one.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL, key = "#user.email"),
+            @CacheEvict(value = ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_ID, key = "#user.userId")})
+    public boolean updateEncodedPassword(User user, String encodedPassword) {
+        return userRepository.updatePassword(user.getUserId(), user.getPassword(), encodedPassword) == 1;
+    }
+
+    /**
+     * Replaces the password of the user by a new one and increments the password version in the same statement, so
+     * that the tokens issued for any earlier version are revoked, whatever copy of the user is cached.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL, key = "#email"),
+            @CacheEvict(value = ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_ID, key = "#userId")})
+    public void changePassword(long userId, String email, String encodedPassword) {
+
+        if (userRepository.changePassword(userId, encodedPassword) != 1) {
+            throw new UserNotFoundException(ApplicationConstants.USER_DOES_NOT_EXIST, userId);
+        }
+    }
+
     @CacheEvict(value = ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL)
     public void evictUserFromCache(String email) {
         log.info("Evicting user from cache : {}", email);
@@ -1,156 +1,390 @@
 package com.project.expense_tracker_backend.service.impl;
 
+import com.project.expense_tracker_backend.config.ExpenseProperties;
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.dto.CategoryExpenseDto;
+import com.project.expense_tracker_backend.dto.ExpenseCursor;
+import com.project.expense_tracker_backend.dto.ExpensePageRequest;
 import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
 import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
+import com.project.expense_tracker_backend.dto.MonthlyExpenseDto;
+import com.project.expense_tracker_backend.dto.MonthlyExpenses;
 import com.project.expense_tracker_backend.exception.ExpenseNotFoundException;
+import com.project.expense_tracker_backend.exception.InvalidExpenseQueryException;
 import com.project.expense_tracker_backend.mapper.ExpenseMapper;
+import com.project.expense_tracker_backend.mapper.ExpensePatchApplier;
 import com.project.expense_tracker_backend.model.AggregateExpense;
 import com.project.expense_tracker_backend.model.Category;
 import com.project.expense_tracker_backend.model.Expense;
 import com.project.expense_tracker_backend.model.User;
+import com.project.expense_tracker_backend.repository.AggregateCategoryExpenseRepository;
 import com.project.expense_tracker_backend.repository.AggregateExpenseRepository;
-import com.project.expense_tracker_backend.repository.CategoryRepository;
 import com.project.expense_tracker_backend.repository.ExpenseRepository;
+import com.project.expense_tracker_backend.service.CategoryDictionary;
 import com.project.expense_tracker_backend.service.IExpenseService;
 import com.project.expense_tracker_backend.service.UserDetailsService;
-import com.project.expense_tracker_backend.util.BeanUtil;
 import com.project.expense_tracker_backend.util.DateUtil;
 import com.project.expense_tracker_backend.util.ExpensesUtil;
+import com.project.expense_tracker_backend.util.LogSampler;
+import com.project.expense_tracker_backend.util.MoneyUtil;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
-import java.time.Month;
 import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(ApplicationConstants.SERVICE_METRIC_NAME)
 @AllArgsConstructor
 @Slf4j
 public class ExpenseServiceImpl implements IExpenseService {
 
+    // the reads run on every page view, only a sample of them is logged
+    private static final LogSampler READ_LOG_SAMPLER = new LogSampler(ApplicationConstants.LOG_SAMPLE_RATE);
+
     private final UserDetailsService userDetailsService;
     private ExpenseRepository expenseRepository;
-    private CategoryRepository categoryRepository;
+    private CategoryDictionary categoryDictionary;
     private ExpenseMapper expenseMapper;
+    private ExpensePatchApplier expensePatchApplier;
     private AggregateExpenseRepository aggregateExpenseRepository;
+    private AggregateCategoryExpenseRepository aggregateCategoryExpenseRepository;
+    private ExpenseProperties expenseProperties;
+    private EntityManager entityManager;
+    private CacheManager cacheManager;
+    private TransactionTemplate transactionTemplate;
 
     @Override
     public List<ExpenseResponseDto> getUserExpenses(String yearMonth, long userId) {
 
-        log.info("Fetching expenses for user_id = {} | STARTS", userId);
+        long startTime = System.nanoTime();
+
+        YearMonth expenseYearMonth = DateUtil.getYearMonth(yearMonth);
+
+        MonthlyExpenses monthlyExpenses = getMonthlyExpenses(userId, expenseYearMonth);
+
+        if (log.isInfoEnabled() && READ_LOG_SAMPLER.sample()) {
+            log.info("getUserExpenses | user_id = {} | {} | {} expenses | {} us", userId, expenseYearMonth,
+                    monthlyExpenses.expenses().size(), elapsedMicros(startTime));
+        }
+
+        return monthlyExpenses.expenses();
+    }
+
+    private MonthlyExpenses getMonthlyExpenses(long userId, YearMonth yearMonth) {
+
+        Cache cache = cacheManager.getCache(ApplicationConstants.MONTHLY_EXPENSES_CACHE_NAME);
+
+        if (!(cache instanceof CaffeineCache caffeineCache)) {
+            return loadMonthlyExpenses(userId, yearMonth);
+        }
+
+        // loaded at most once per month, concurrent requests for the same month wait for the same load. The load runs
+        // after the cache has registered it, not inside the cache's map lock, so a virtual thread waiting on the
+        // database does not pin its carrier thread
+        CompletableFuture<Object> load = new CompletableFuture<>();
+
+        CompletableFuture<Object> monthlyExpenses = caffeineCache.getAsyncCache()
+                .get(new MonthlyExpenses.Key(userId, yearMonth), (key, executor) -> load);
+
+        if (monthlyExpenses != load) {
+            return awaitMonthlyExpenses(monthlyExpenses);
+        }
+
+        try {
+            MonthlyExpenses loadedMonthlyExpenses = loadMonthlyExpenses(userId, yearMonth);
+
+            load.complete(loadedMonthlyExpenses);
+
+            return loadedMonthlyExpenses;
+        } catch (Throwable throwable) {
+
+            // the cache drops a failed load, the requests waiting for it fail the same way. Errors included, a load
+            // that is never completed would stay in the cache and every later request for the month would hang on it
+            load.completeExceptionally(throwable);
+
+            throw throwable;
+        }
+    }
+
+    private static MonthlyExpenses awaitMonthlyExpenses(CompletableFuture<Object> monthlyExpenses) {
+
+        try {
+            // a load that hangs is failed after the timeout, which also drops it from the cache
+            return (MonthlyExpenses) monthlyExpenses
+                    .orTimeout(ApplicationConstants.MONTHLY_EXPENSES_LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .join();
+        } catch (CompletionException completionException) {
+
+            if (completionException.getCause() instanceof RuntimeException exception) {
+                throw exception;
+            }
+
+            if (completionException.getCause() instanceof Error error) {
+                throw error;
+            }
+
+            throw completionException;
+        }
+    }
+
+    private MonthlyExpenses loadMonthlyExpenses(long userId, YearMonth yearMonth) {
+
+        log.info("Loading expenses of {} for user_id = {}", yearMonth, userId);
+
+        List<ExpenseResponseDto> userExpenses = expenseRepository
+                .findExpenseResponsesByUserIdAndDateBetween(userId, yearMonth.atDay(1), yearMonth.atEndOfMonth());
+
+        // read-your-writes in outbox mode: the deltas that are not folded into the total yet are added to it, in the
+        // same statement as the total is read
+        Long totalMonthlyAmount = isOutboxAggregateMode()
+                ? aggregateExpenseRepository.findMonthlyAmountWithPendingDeltas(userId, yearMonth)
+                : aggregateExpenseRepository
+                        .findAggregateExpenseByUserUserIdAndExpenseMonthAndExpenseYear(userId, yearMonth.getMonth(), yearMonth.getYear())
+                        .map(AggregateExpense::getAmount)
+                        .orElse(null);
+
+        Double totalMonthlyExpense = (totalMonthlyAmount != null) ? MoneyUtil.toDecimal(totalMonthlyAmount) : null;
+
+        return new MonthlyExpenses(userExpenses, totalMonthlyExpense);
+    }
+
+    // in outbox mode the total is only updated by AggregateExpenseFolder, a write just records its delta
+    private void addToMonthlyAmount(long userId, YearMonth yearMonth, long delta) {
+
+        if (isOutboxAggregateMode()) {
+            aggregateExpenseRepository.appendMonthlyDelta(userId, yearMonth, delta);
+        } else {
+            aggregateExpenseRepository.addToMonthlyAmount(userId, yearMonth, delta);
+        }
+    }
+
+    private boolean isOutboxAggregateMode() {
+        return expenseProperties.aggregateMode() == ExpenseProperties.AggregateMode.OUTBOX;
+    }
+
+    private void evictMonthlyExpenses(long userId, Collection<YearMonth> yearMonths) {
+
+        Cache cache = cacheManager.getCache(ApplicationConstants.MONTHLY_EXPENSES_CACHE_NAME);
+
+        if (null == cache) {
+            return;
+        }
+
+        // evicted only once the transaction has committed, otherwise a concurrent read could cache the old state again
+        Cache transactionAwareCache = new TransactionAwareCacheDecorator(cache);
+
+        yearMonths.forEach(yearMonth -> transactionAwareCache.evict(new MonthlyExpenses.Key(userId, yearMonth)));
+    }
+
+    @Override
+    public ExpensePageRequest createExpensePageRequest(String yearMonth, LocalDate fromDate, LocalDate toDate,
+                                                       String cursor, Integer pageSize) {
+
+        // without a date range, the page is taken from the month (the current month if none is given)
+        if (fromDate == null && toDate == null) {
+
+            LocalDate[] firstAndLastDateOfMonth = DateUtil.getFirstAndLastDateOfMonth(yearMonth);
+
+            fromDate = firstAndLastDateOfMonth[0];
+            toDate = firstAndLastDateOfMonth[1];
+
+        } else if (fromDate == null || toDate == null) {
+            throw new InvalidExpenseQueryException(ApplicationConstants.EXPENSE_RANGE_INCOMPLETE);
+
+        } else if (fromDate.isAfter(toDate)) {
+            throw new InvalidExpenseQueryException(String.format(ApplicationConstants.EXPENSE_RANGE_NOT_VALID, fromDate, toDate));
+        }
+
+        int resolvedPageSize = (pageSize != null) ? pageSize : expenseProperties.pageSize();
+
+        if (resolvedPageSize < 1 || resolvedPageSize > expenseProperties.maxPageSize()) {
+            throw new InvalidExpenseQueryException(
+                    String.format(ApplicationConstants.EXPENSE_PAGE_SIZE_NOT_VALID, expenseProperties.maxPageSize()));
+        }
+
+        ExpenseCursor after = (cursor != null) ? ExpenseCursor.decode(cursor) : null;
+
+        return new ExpensePageRequest(fromDate, toDate, after, resolvedPageSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ExpenseCursor streamUserExpenses(long userId, ExpensePageRequest pageRequest, Consumer<ExpenseResponseDto> consumer) {
+
+        // the first page starts before the first day of the range
+        LocalDate afterDate = (pageRequest.after() != null) ? pageRequest.after().date() : pageRequest.fromDate().minusDays(1);
+        long afterExpenseId = (pageRequest.after() != null) ? pageRequest.after().expenseId() : 0;
+
+        // one more expense than the page size is read, to know whether there is a next page
+        try (Stream<Expense> userExpenses = expenseRepository.streamByUserUserIdAndDateBetweenAfter(userId,
+                pageRequest.fromDate(), pageRequest.toDate(), afterDate, afterExpenseId, Limit.of(pageRequest.pageSize() + 1))) {
+
+            Iterator<Expense> iterator = userExpenses.iterator();
 
-        // 0th index contains the first date, and 1st index contains the last date of month
-        LocalDate[] firstAndLastDateOfMonth = DateUtil.getFirstAndLastDateOfMonth(yearMonth);
+            Expense lastExpense = null;
+            int expenseCount = 0;
 
-        List<Expense> userExpenses = expenseRepository
-                .findByUserUserIdAndDateBetween(userId, firstAndLastDateOfMonth[0], firstAndLastDateOfMonth[1]);
+            while (iterator.hasNext()) {
 
-        log.info("Fetching expenses for user_id = {} | ENDS", userId);
+                Expense expense = iterator.next();
+
+                if (expenseCount == pageRequest.pageSize()) {
+                    return new ExpenseCursor(lastExpense.getDate(), lastExpense.getExpenseId());
+                }
+
+                consumer.accept(expenseMapper.expenseToExpenseResponseMapper(expense));
+
+                // written out already, so it does not have to stay in the persistence context
+                entityManager.detach(expense);
+
+                lastExpense = expense;
+                expenseCount++;
+            }
+        }
 
-        return expenseMapper.expenseToExpenseResponseMapper(userExpenses);
+        return null;
     }
 
     @Override
     public List<ExpenseResponseDto> saveUserExpenses(long userId, List<ExpenseRequestDto> userExpenses) {
 
-        log.info("Saving expenses for user_id = {} | STARTS", userId);
+        long startTime = System.nanoTime();
 
         User user = findUserByUserID(userId);
 
-        List<Expense> savedExpenses = new ArrayList<>();
+        // resolve all the categories of the request at once, instead of one lookup per expense. Before the transaction
+        // opens, as a missing category is created with a connection of its own (see CategoryDictionary)
+        Map<String, Category> categories = categoryDictionary.resolveAll(
+                userExpenses.stream().map(ExpenseRequestDto::getCategoryName).toList());
+
+        Map<YearMonth, long[]> aggregatedExpensesPerMonthYear = new HashMap<>();
+
+        List<ExpenseResponseDto> savedExpenses = transactionTemplate.execute(status ->
+                saveExpenses(user, userExpenses, categories, aggregatedExpensesPerMonthYear));
+
+        log.info("saveUserExpenses | user_id = {} | {} expenses | {} months | {} us", userId, userExpenses.size(),
+                aggregatedExpensesPerMonthYear.size(), elapsedMicros(startTime));
+
+        return savedExpenses;
+    }
+
+    private List<ExpenseResponseDto> saveExpenses(User user, List<ExpenseRequestDto> userExpenses,
+                                                  Map<String, Category> categories,
+                                                  Map<YearMonth, long[]> aggregatedExpensesPerMonthYear) {
+
+        long userId = user.getUserId();
+
+        int batchSize = expenseProperties.batchSize();
+
+        List<ExpenseResponseDto> savedExpenses = new ArrayList<>(userExpenses.size());
+
+        List<Expense> expenseBatch = new ArrayList<>(batchSize);
 
-        Map<YearMonth, Double> aggregatedExpensesPerMonthYear = new HashMap<>();
+        Map<ExpensesUtil.CategoryMonth, long[]> aggregatedExpensesPerCategoryMonth = new HashMap<>();
 
         for (ExpenseRequestDto userExpense : userExpenses) {
 
-            Category currentCategory = findOrCreateCategory(userExpense.getCategoryName());
+            Category currentCategory = categories.get(userExpense.getCategoryName());
 
             Expense newExpense = expenseMapper.expenseRequestToExpenseMapper(null, userExpense, currentCategory, user);
 
             ExpensesUtil.populateExpensePerYearMonthMap(newExpense, aggregatedExpensesPerMonthYear);
+            ExpensesUtil.populateExpensePerCategoryMonthMap(newExpense, aggregatedExpensesPerCategoryMonth);
 
-            savedExpenses.add(expenseRepository.save(newExpense));
-        }
-
-        saveAggregatedExpensePerYearMonth(aggregatedExpensesPerMonthYear, user);
+            expenseBatch.add(newExpense);
 
-        log.info("Saving expenses for user_id = {} | ENDS", userId);
+            if (expenseBatch.size() == batchSize) {
+                savedExpenses.addAll(saveExpenseBatch(expenseBatch));
+                expenseBatch.clear();
+            }
+        }
 
-        return expenseMapper.expenseToExpenseResponseMapper(savedExpenses);
-    }
+        if (!expenseBatch.isEmpty()) {
+            savedExpenses.addAll(saveExpenseBatch(expenseBatch));
+        }
 
-    private void saveAggregatedExpensePerYearMonth(Map<YearMonth, Double> aggregatedExpensesPerMonthYear, User user) {
+        saveAggregatedExpensePerYearMonth(aggregatedExpensesPerMonthYear, user);
 
-        log.info("Updating Aggregate Expense for user_id = {} | STARTS", user.getUserId());
+        aggregatedExpensesPerCategoryMonth.forEach((categoryMonth, aggregateAmount) ->
+                aggregateCategoryExpenseRepository.addToCategoryAmount(userId, categoryMonth.categoryId(),
+                        categoryMonth.yearMonth(), aggregateAmount[0]));
 
-        for (Map.Entry<YearMonth, Double> entry : aggregatedExpensesPerMonthYear.entrySet()) {
+        evictMonthlyExpenses(userId, aggregatedExpensesPerMonthYear.keySet());
 
-            YearMonth currentYearMonth = entry.getKey();
-            Double aggregateAmount = entry.getValue();
+        return savedExpenses;
+    }
 
-            // if aggregate expense for currentYearMonth exists, then this ID will be updated
-            Long aggregateExpenseId = null;
+    private List<ExpenseResponseDto> saveExpenseBatch(List<Expense> expenseBatch) {
 
-            Optional<AggregateExpense> aggregateExpensePerYearMonth =
-                    aggregateExpenseRepository.findAggregateExpenseByUserUserIdAndExpenseMonthAndExpenseYear(user.getUserId(), currentYearMonth.getMonth(), currentYearMonth.getYear());
+        List<Expense> savedExpenses = expenseRepository.saveAll(expenseBatch);
 
-            // if the user already has existing expenses for currentYearMonth, then add the amount to the aggregateAmount
-            if (aggregateExpensePerYearMonth.isPresent()) {
-                aggregateAmount = aggregateAmount + aggregateExpensePerYearMonth.get().getAmount();
-                aggregateExpenseId = aggregateExpensePerYearMonth.get().getId();
-            }
+        // send the batch as one JDBC batch and detach it, so that large imports do not grow the persistence context
+        entityManager.flush();
+        entityManager.clear();
 
-            AggregateExpense newAggregateExpense =
-                    new AggregateExpense(aggregateExpenseId, user, currentYearMonth.getMonth(), currentYearMonth.getYear(), aggregateAmount);
+        return expenseMapper.expenseToExpenseResponseMapper(savedExpenses);
+    }
 
-            // if for the currentYearMonth AggregateExpense exists, then it will update the value, otherwise will create a new entry for the currentYearMonth.
-            aggregateExpenseRepository.save(newAggregateExpense);
+    private void saveAggregatedExpensePerYearMonth(Map<YearMonth, long[]> aggregatedExpensesPerMonthYear, User user) {
 
-            log.info("Updating Aggregate Expense for user_id = {} | ENDS", user.getUserId());
-        }
+        // creates the AggregateExpense for the month if needed, otherwise adds the amount to the existing total
+        aggregatedExpensesPerMonthYear.forEach((yearMonth, aggregateAmount) ->
+                addToMonthlyAmount(user.getUserId(), yearMonth, aggregateAmount[0]));
     }
 
     private User findUserByUserID(long userId) {
         return userDetailsService.loadUserById(userId);
     }
 
-    private Category findOrCreateCategory(String categoryName) {
+    @Override
+    public ExpenseResponseDto updateUserExpense(long userId, long expenseId, ExpenseRequestDto expenseRequestDto) {
 
-        Optional<Category> categoryOptional = categoryRepository.findByCategoryName(categoryName);
+        long startTime = System.nanoTime();
 
-        if (categoryOptional.isPresent()) {
-            return categoryOptional.get();
+        // like saveUserExpenses, a new category is created before the transaction opens, the patch then finds it
+        // in the dictionary
+        if (expenseRequestDto.getCategoryName() != null) {
+            categoryDictionary.resolve(expenseRequestDto.getCategoryName());
         }
 
-        Category newCategory = new Category(null, categoryName);
+        ExpenseResponseDto updatedUserExpense = transactionTemplate.execute(status ->
+                applyExpenseUpdate(userId, expenseId, expenseRequestDto));
+
+        log.info("updateUserExpense | user_id = {} | expense_id = {} | {} us", userId, expenseId, elapsedMicros(startTime));
 
-        return categoryRepository.save(newCategory);
+        return updatedUserExpense;
     }
 
-    @Override
-    public ExpenseResponseDto updateUserExpense(long userId, long expenseId, ExpenseRequestDto expenseRequestDto) {
+    private ExpenseResponseDto applyExpenseUpdate(long userId, long expenseId, ExpenseRequestDto expenseRequestDto) {
 
-        Expense existingExpense = expenseRepository.findById(expenseId)
+        Expense existingExpense = expenseRepository.findWithCategoryByExpenseId(expenseId)
                 .orElseThrow(() -> new ExpenseNotFoundException(expenseId));
 
-        // expense does not belong to logged-in user
+        // expense does not belong to logged-in user, reading the id of the lazy user does not load it
         if (existingExpense.getUser().getUserId() != userId) {
             throw new ExpenseNotFoundException(expenseId, userId);
         }
 
         Expense updatedExpense = new Expense(existingExpense);
 
-        BeanUtil.copyNonNullProperties(expenseRequestDto, updatedExpense);
-
-        if (expenseRequestDto.getCategoryName() != null &&
-                !expenseRequestDto.getCategoryName().equals(updatedExpense.getCategory().getCategoryName())) {
-
-            Category category = findOrCreateCategory(expenseRequestDto.getCategoryName());
-
-            updatedExpense.setCategory(category);
-        }
+        expensePatchApplier.applyPatch(expenseRequestDto, updatedExpense);
 
         updateAggregateExpense(userId, existingExpense, updatedExpense);
 
@@ -161,54 +395,43 @@ public class ExpenseServiceImpl implements IExpenseService {
 
     private void updateAggregateExpense(long userId, Expense existingExpense, Expense updatedExpense) {
 
-        log.info("updateAggregateExpense | Updating Aggregate Expense for user_id = {} | STARTS", userId);
-
-
         YearMonth oldYearMonth = DateUtil.getYearMonth(existingExpense.getDate());
         YearMonth newYearMonth = DateUtil.getYearMonth(updatedExpense.getDate());
 
-        AggregateExpense oldMonthAggregateExpense = aggregateExpenseRepository
-                .findAggregateExpenseByUserUserIdAndExpenseMonthAndExpenseYear(userId, oldYearMonth.getMonth(), oldYearMonth.getYear())
-                .orElseThrow(() -> new RuntimeException("Aggregate expense not found"));
-
         if (oldYearMonth.equals(newYearMonth)) {
 
-            Double newAggregateExpenseAmount = oldMonthAggregateExpense.getAmount() - existingExpense.getAmount() + updatedExpense.getAmount();
-
-            oldMonthAggregateExpense.setAmount(newAggregateExpenseAmount);
-            aggregateExpenseRepository.save(oldMonthAggregateExpense);
+            addToMonthlyAmount(userId, oldYearMonth,
+                    updatedExpense.getAmount() - existingExpense.getAmount());
         } else {
 
-            Double oldAggregateAmount = oldMonthAggregateExpense.getAmount() - existingExpense.getAmount();
-            oldMonthAggregateExpense.setAmount(oldAggregateAmount);
-            aggregateExpenseRepository.save(oldMonthAggregateExpense);
-
-            Long newAggregateExpenseId = null;
-            Double newAggregateAmount = 0.0;
-
-            Optional<AggregateExpense> optionalNewMonthAggregateExpense = aggregateExpenseRepository
-                    .findAggregateExpenseByUserUserIdAndExpenseMonthAndExpenseYear(userId, newYearMonth.getMonth(), newYearMonth.getYear());
-
-            if (optionalNewMonthAggregateExpense.isPresent()) {
-                newAggregateExpenseId = optionalNewMonthAggregateExpense.get().getId();
-                newAggregateAmount = optionalNewMonthAggregateExpense.get().getAmount();
-            }
-            newAggregateAmount += updatedExpense.getAmount();
+            // the expense moved to another month, take it out of the old month and add it to the new one
+            addToMonthlyAmount(userId, oldYearMonth, -existingExpense.getAmount());
+            addToMonthlyAmount(userId, newYearMonth, updatedExpense.getAmount());
+        }
 
-            User user = findUserByUserID(userId);
+        Long oldCategoryId = ExpensesUtil.getCategoryId(existingExpense);
+        Long newCategoryId = ExpensesUtil.getCategoryId(updatedExpense);
 
-            AggregateExpense newMonthAggregateExpense =
-                    new AggregateExpense(newAggregateExpenseId, user, newYearMonth.getMonth(), newYearMonth.getYear(), newAggregateAmount);
+        if (oldYearMonth.equals(newYearMonth) && Objects.equals(oldCategoryId, newCategoryId)) {
 
-            aggregateExpenseRepository.save(newMonthAggregateExpense);
+            aggregateCategoryExpenseRepository.addToCategoryAmount(userId, oldCategoryId, oldYearMonth,
+                    updatedExpense.getAmount() - existingExpense.getAmount());
+        } else {
 
+            // the expense moved to another category or month
+            aggregateCategoryExpenseRepository.addToCategoryAmount(userId, oldCategoryId, oldYearMonth, -existingExpense.getAmount());
+            aggregateCategoryExpenseRepository.addToCategoryAmount(userId, newCategoryId, newYearMonth, updatedExpense.getAmount());
         }
-        log.info("updateAggregateExpense | Updating Aggregate Expense for user_id = {} | ENDS", userId);
+
+        evictMonthlyExpenses(userId, new HashSet<>(List.of(oldYearMonth, newYearMonth)));
     }
 
     @Override
+    @Transactional
     public void deleteUserExpense(long expenseId, long userId) {
 
+        long startTime = System.nanoTime();
+
         Expense existingExpense = expenseRepository.findByExpenseIdAndUserUserId(expenseId, userId)
                 .orElseThrow(() -> new ExpenseNotFoundException(expenseId, userId));
 
@@ -216,37 +439,146 @@ public class ExpenseServiceImpl implements IExpenseService {
         updateAggregateExpenseForDeleteExpense(userId, existingExpense);
 
         expenseRepository.delete(existingExpense);
+
+        log.info("deleteUserExpense | user_id = {} | expense_id = {} | {} us", userId, expenseId, elapsedMicros(startTime));
     }
 
     private void updateAggregateExpenseForDeleteExpense(long userId, Expense existingExpense) {
 
-        Month expenseMonth = existingExpense.getDate().getMonth();
-        int expenseYear = existingExpense.getDate().getYear();
+        YearMonth yearMonth = DateUtil.getYearMonth(existingExpense.getDate());
 
-        AggregateExpense aggregateExpense = aggregateExpenseRepository
-                .findAggregateExpenseByUserUserIdAndExpenseMonthAndExpenseYear(userId, expenseMonth, expenseYear)
-                .orElseThrow(() -> new RuntimeException("Aggregate expense not found"));
+        addToMonthlyAmount(userId, yearMonth, -existingExpense.getAmount());
+        aggregateCategoryExpenseRepository.addToCategoryAmount(userId, ExpensesUtil.getCategoryId(existingExpense),
+                yearMonth, -existingExpense.getAmount());
 
-        aggregateExpense.setAmount(aggregateExpense.getAmount() - existingExpense.getAmount());
-        aggregateExpenseRepository.save(aggregateExpense);
+        evictMonthlyExpenses(userId, Set.of(yearMonth));
     }
 
     @Override
     public Double getTotalMonthlyUserExpense(String yearMonth, long userId) {
 
+        long startTime = System.nanoTime();
+
         YearMonth expenseYearMonth = DateUtil.getYearMonth(yearMonth);
 
-        log.info("Fetching total expense for Month and Year : {}", expenseYearMonth);
+        Double totalMonthlyExpense = getMonthlyExpenses(userId, expenseYearMonth).totalMonthlyExpense();
+
+        if (log.isInfoEnabled() && READ_LOG_SAMPLER.sample()) {
+            log.info("getTotalMonthlyUserExpense | user_id = {} | {} | total = {} | {} us", userId, expenseYearMonth,
+                    totalMonthlyExpense, elapsedMicros(startTime));
+        }
+
+        return totalMonthlyExpense;
+    }
+
+    @Override
+    public List<CategoryExpenseDto> getCategoryExpenses(String yearMonth, String fromYearMonth, String toYearMonth,
+                                                        long userId) {
+
+        long startTime = System.nanoTime();
 
-        Optional<AggregateExpense> aggregateMonthlyExpense = aggregateExpenseRepository
-                .findAggregateExpenseByUserUserIdAndExpenseMonthAndExpenseYear(
-                        userId, expenseYearMonth.getMonth(), expenseYearMonth.getYear());
+        YearMonth[] monthRange;
 
-        if (aggregateMonthlyExpense.isEmpty()) {
-            log.warn("No total expense found for Month and Year: {}", expenseYearMonth);
-            return null;
+        // without a month range, the totals are those of the month (the current month if none is given)
+        if (fromYearMonth == null && toYearMonth == null) {
+
+            YearMonth month = DateUtil.getYearMonth(yearMonth);
+            monthRange = new YearMonth[]{month, month};
+
+        } else {
+            monthRange = parseMonthRange(fromYearMonth, toYearMonth);
+        }
+
+        YearMonth fromMonth = monthRange[0];
+        YearMonth toMonth = monthRange[1];
+
+        List<CategoryExpenseDto> categoryExpenses = aggregateCategoryExpenseRepository.findCategoryTotalsByUserIdAndPeriodBetween(
+                userId, DateUtil.toPeriod(fromMonth), DateUtil.toPeriod(toMonth));
+
+        if (log.isInfoEnabled() && READ_LOG_SAMPLER.sample()) {
+            log.info("getCategoryExpenses | user_id = {} | {} to {} | {} categories | {} us", userId, fromMonth, toMonth,
+                    categoryExpenses.size(), elapsedMicros(startTime));
+        }
+
+        return categoryExpenses;
+    }
+
+    @Override
+    public List<MonthlyExpenseDto> getMonthlyTrend(String fromYearMonth, String toYearMonth, long userId) {
+
+        long startTime = System.nanoTime();
+
+        YearMonth[] monthRange;
+
+        if (fromYearMonth == null && toYearMonth == null) {
+
+            YearMonth currentMonth = DateUtil.getYearMonth((String) null);
+            monthRange = new YearMonth[]{currentMonth.minusMonths(11), currentMonth};
+
+        } else {
+            monthRange = parseMonthRange(fromYearMonth, toYearMonth);
+        }
+
+        int fromPeriod = DateUtil.toPeriod(monthRange[0]);
+        int toPeriod = DateUtil.toPeriod(monthRange[1]);
+
+        if (toPeriod - fromPeriod >= expenseProperties.maxTrendMonths()) {
+            throw new InvalidExpenseQueryException(
+                    String.format(ApplicationConstants.EXPENSE_MONTH_RANGE_TOO_LONG, expenseProperties.maxTrendMonths()));
+        }
+
+        // one range query for the whole trend, the months without a total are filled in below. Read-your-writes in
+        // outbox mode, like the total of a single month
+        Iterator<MonthlyExpenseDto> monthlyTotals = (isOutboxAggregateMode()
+                ? aggregateExpenseRepository.findMonthlyTotalsWithPendingDeltas(userId, fromPeriod, toPeriod)
+                : aggregateExpenseRepository.findMonthlyTotalsByUserIdAndPeriodBetween(userId, fromPeriod, toPeriod))
+                .iterator();
+
+        List<MonthlyExpenseDto> trend = new ArrayList<>(toPeriod - fromPeriod + 1);
+
+        MonthlyExpenseDto monthlyTotal = monthlyTotals.hasNext() ? monthlyTotals.next() : null;
+
+        for (YearMonth month = monthRange[0]; !month.isAfter(monthRange[1]); month = month.plusMonths(1)) {
+
+            MonthlyExpenseDto trendMonth;
+
+            if (monthlyTotal != null && monthlyTotal.getYearMonth().equals(month)) {
+
+                trendMonth = monthlyTotal;
+                monthlyTotal = monthlyTotals.hasNext() ? monthlyTotals.next() : null;
+            } else {
+                trendMonth = new MonthlyExpenseDto(DateUtil.toPeriod(month), 0);
+            }
+
+            trend.add(trendMonth);
+        }
+
+        if (log.isInfoEnabled() && READ_LOG_SAMPLER.sample()) {
+            log.info("getMonthlyTrend | user_id = {} | {} to {} | {} us", userId, monthRange[0], monthRange[1],
+                    elapsedMicros(startTime));
         }
-        log.info("Fetched total expense for Month and Year : {}", expenseYearMonth);
-        return aggregateMonthlyExpense.get().getAmount();
+
+        return trend;
+    }
+
+    private static YearMonth[] parseMonthRange(String fromYearMonth, String toYearMonth) {
+
+        if (fromYearMonth == null || toYearMonth == null) {
+            throw new InvalidExpenseQueryException(ApplicationConstants.EXPENSE_MONTH_RANGE_INCOMPLETE);
+        }
+
+        YearMonth fromMonth = YearMonth.parse(fromYearMonth);
+        YearMonth toMonth = YearMonth.parse(toYearMonth);
+
+        if (fromMonth.isAfter(toMonth)) {
+            throw new InvalidExpenseQueryException(
+                    String.format(ApplicationConstants.EXPENSE_MONTH_RANGE_NOT_VALID, fromMonth, toMonth));
+        }
+
+        return new YearMonth[]{fromMonth, toMonth};
+    }
+
+    private static long elapsedMicros(long startTime) {
+        return (System.nanoTime() - startTime) / 1_000;
     }
 }
@@ -1,6 +1,7 @@
 package com.project.expense_tracker_backend.service.impl;
 
 import com.project.expense_tracker_backend.config.JwtGenerator;
+import com.project.expense_tracker_backend.config.TokenVersionRegistry;
 import com.project.expense_tracker_backend.constants.ApplicationConstants;
 import com.project.expense_tracker_backend.dto.LoginRequestDto;
 import com.project.expense_tracker_backend.dto.LoginResponseDto;
@@ -9,6 +10,7 @@ import com.project.expense_tracker_backend.model.User;
 import com.project.expense_tracker_backend.repository.UserRepository;
 import com.project.expense_tracker_backend.service.ILoginService;
 import com.project.expense_tracker_backend.service.UserDetailsService;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +21,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
+@Timed(ApplicationConstants.SERVICE_METRIC_NAME)
 @AllArgsConstructor
 public class LoginServiceImpl implements ILoginService {
 
@@ -34,6 +37,8 @@ public class LoginServiceImpl implements ILoginService {
 
     private PasswordEncoder passwordEncoder;
 
+    private TokenVersionRegistry tokenVersionRegistry;
+
     @Override
     public LoginResponseDto loginUserAndGenerateToken(LoginRequestDto loginRequestDto) {
 
@@ -63,8 +68,13 @@ public class LoginServiceImpl implements ILoginService {
     @Override
     public void changeUserPassword(String newPassword, long userId) {
 
-        User user = userDetailsService.loadUserById(userId);
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        // only the email is read, which does not change, the cached user may be out of date otherwise
+        String email = userDetailsService.loadUserById(userId).getEmail();
+
+        userDetailsService.changePassword(userId, email, passwordEncoder.encode(newPassword));
+
+        // tokens issued before the password change are rejected from now on, including the one cached for login
+        tokenVersionRegistry.revokeTokens(userId);
+        jwtGenerator.evictToken(email);
     }
 }
@@ -34,6 +34,18 @@ public class DateUtil {
         return YearMonth.of(localDate.getYear(), localDate.getMonth());
     }
 
+    /**
+     * The month as a single sortable number, year * 12 + month ordinal (JANUARY = 0), like the expense_period column
+     * of the aggregate tables.
+     */
+    public static int toPeriod(YearMonth yearMonth) {
+        return yearMonth.getYear() * 12 + yearMonth.getMonth().ordinal();
+    }
+
+    public static YearMonth fromPeriod(int period) {
+        return YearMonth.of(Math.floorDiv(period, 12), Math.floorMod(period, 12) + 1);
+    }
+
     public static YearMonth getYearMonth(String yearMonth) {
 
         return (yearMonth != null) ? YearMonth.parse(yearMonth)
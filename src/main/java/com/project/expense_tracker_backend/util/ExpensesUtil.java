@@ -7,10 +7,33 @@ import java.util.Map;
 
 public class ExpensesUtil {
 
-    public static void populateExpensePerYearMonthMap(Expense newExpense, Map<YearMonth, Double> aggregateMap) {
+    /**
+     * Adds the expense amount to the total of its month. Each total is a single element array, so it is updated in
+     * place with a primitive add instead of re-boxing the sum for every expense.
+     */
+    public static void populateExpensePerYearMonthMap(Expense newExpense, Map<YearMonth, long[]> aggregateMap) {
 
         YearMonth expenseYearMonth = DateUtil.getYearMonth(newExpense.getDate());
 
-        aggregateMap.put(expenseYearMonth, aggregateMap.getOrDefault(expenseYearMonth, 0.0) + newExpense.getAmount());
+        aggregateMap.computeIfAbsent(expenseYearMonth, yearMonth -> new long[1])[0] += newExpense.getAmount();
+    }
+
+    /**
+     * Adds the expense amount to the total of its category and month, like {@link #populateExpensePerYearMonthMap}.
+     */
+    public static void populateExpensePerCategoryMonthMap(Expense newExpense, Map<CategoryMonth, long[]> aggregateMap) {
+
+        CategoryMonth expenseCategoryMonth = new CategoryMonth(getCategoryId(newExpense), DateUtil.getYearMonth(newExpense.getDate()));
+
+        aggregateMap.computeIfAbsent(expenseCategoryMonth, categoryMonth -> new long[1])[0] += newExpense.getAmount();
+    }
+
+    // reading the id of a lazy category does not load it
+    public static Long getCategoryId(Expense expense) {
+        return (expense.getCategory() != null) ? expense.getCategory().getCategoryId() : null;
+    }
+
+    // categoryId is null for the expenses without a category
+    public record CategoryMonth(Long categoryId, YearMonth yearMonth) {
     }
 }
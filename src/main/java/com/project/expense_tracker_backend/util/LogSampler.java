@@ -0,0 +1,21 @@
+package com.project.expense_tracker_backend.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lets about one in every {@code sampleRate} events of a noisy, per-request log statement through. Check it after
+ * the level, so that a disabled statement costs neither the sampling nor the boxing of its arguments.
+ */
+public class LogSampler {
+
+    private final int sampleRate;
+
+    public LogSampler(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    public boolean sample() {
+        // a thread local random, unlike a shared counter, does not contend between request threads
+        return sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+}
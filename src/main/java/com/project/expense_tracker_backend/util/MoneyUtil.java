@@ -0,0 +1,29 @@
+package com.project.expense_tracker_backend.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts are stored and summed as whole minor units (1/100 of the currency unit) in a {@code long},
+ * and only converted to decimals at the API boundary.
+ */
+public class MoneyUtil {
+
+    private static final int MINOR_UNIT_DIGITS = 2;
+
+    private static final double MINOR_UNITS_PER_UNIT = 100.0;
+
+    private MoneyUtil() {
+    }
+
+    public static long toMinorUnits(double amount) {
+        // BigDecimal.valueOf uses the shortest decimal representation of the double, so 19.99 becomes exactly 1999
+        return BigDecimal.valueOf(amount).movePointRight(MINOR_UNIT_DIGITS)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    public static double toDecimal(long minorUnits) {
+        return minorUnits / MINOR_UNITS_PER_UNIT;
+    }
+}
@@ -0,0 +1,50 @@
+-- applied to empty databases only, the schema created by ddl-auto before the migrations (IDENTITY ids, no sequences)
+-- is not converted
+CREATE SEQUENCE category_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE expense_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE user_details
+(
+    user_id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name              VARCHAR(255),
+    email             VARCHAR(255),
+    password          VARCHAR(255),
+    mobile_number     VARCHAR(255),
+    registration_date TIMESTAMP(6),
+    last_modified     TIMESTAMP(6),
+    PRIMARY KEY (user_id),
+    CONSTRAINT uk_user_details_email UNIQUE (email)
+);
+
+CREATE TABLE category
+(
+    category_id   BIGINT NOT NULL,
+    category_name VARCHAR(255),
+    PRIMARY KEY (category_id),
+    CONSTRAINT uk_category_name UNIQUE (category_name)
+);
+
+CREATE TABLE expense
+(
+    expense_id  BIGINT NOT NULL,
+    description VARCHAR(255),
+    amount      FLOAT(53),
+    date        DATE,
+    category_id BIGINT,
+    user_id     BIGINT,
+    PRIMARY KEY (expense_id),
+    CONSTRAINT fk_expense_category FOREIGN KEY (category_id) REFERENCES category (category_id),
+    CONSTRAINT fk_expense_user FOREIGN KEY (user_id) REFERENCES user_details (user_id)
+);
+
+CREATE TABLE aggregate_expense
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id       BIGINT,
+    expense_month TINYINT CHECK (expense_month BETWEEN 0 AND 11),
+    expense_year  INTEGER NOT NULL,
+    amount        FLOAT(53),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_aggregate_expense_user_month UNIQUE (user_id, expense_year, expense_month),
+    CONSTRAINT fk_aggregate_expense_user FOREIGN KEY (user_id) REFERENCES user_details (user_id)
+);
@@ -0,0 +1,8 @@
+-- amounts are stored as whole minor units (1/100 of the currency unit) instead of floating point values
+UPDATE expense SET amount = COALESCE(ROUND(amount * 100), 0);
+ALTER TABLE expense ALTER COLUMN amount SET DATA TYPE BIGINT;
+ALTER TABLE expense ALTER COLUMN amount SET NOT NULL;
+
+UPDATE aggregate_expense SET amount = COALESCE(ROUND(amount * 100), 0);
+ALTER TABLE aggregate_expense ALTER COLUMN amount SET DATA TYPE BIGINT;
+ALTER TABLE aggregate_expense ALTER COLUMN amount SET NOT NULL;
@@ -0,0 +1,9 @@
+-- expenses are always looked up per user, by date range and then in (date, expense_id) order for the keyset pages
+CREATE INDEX idx_expense_user_date ON expense (user_id, date, expense_id);
+
+-- the monthly aggregate lookup (user_id, expense_year, expense_month) is already served by uk_aggregate_expense_user_month
+
+-- categories are matched case and whitespace insensitively, which an index on category_name cannot serve. Unique, so that
+-- two requests creating "Food" and " food" at the same time do not both insert, see CategoryDictionary
+ALTER TABLE category ADD COLUMN normalised_category_name VARCHAR(255) GENERATED ALWAYS AS (LOWER(TRIM(category_name)));
+CREATE UNIQUE INDEX idx_category_normalised_name ON category (normalised_category_name);
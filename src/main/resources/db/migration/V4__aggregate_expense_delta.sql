@@ -0,0 +1,15 @@
+-- changes to the monthly totals waiting to be folded into aggregate_expense, when expense.aggregate-mode is outbox.
+-- Written in the transaction of the expense write, folded and deleted in batches by AggregateExpenseFolder
+CREATE TABLE aggregate_expense_delta
+(
+    delta_id      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id       BIGINT  NOT NULL,
+    expense_year  INTEGER NOT NULL,
+    expense_month TINYINT NOT NULL CHECK (expense_month BETWEEN 0 AND 11),
+    amount        BIGINT  NOT NULL,
+    PRIMARY KEY (delta_id),
+    CONSTRAINT fk_aggregate_expense_delta_user FOREIGN KEY (user_id) REFERENCES user_details (user_id)
+);
+
+-- the pending deltas of a month are added to its folded total on every read
+CREATE INDEX idx_aggregate_expense_delta_user_month ON aggregate_expense_delta (user_id, expense_year, expense_month);
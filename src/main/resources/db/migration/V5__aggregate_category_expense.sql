@@ -0,0 +1,23 @@
+-- total expense amount per user, month and category, maintained by the same writes as aggregate_expense.
+-- Expenses without a category are totalled under a NULL category_id, which the unique key treats as one value
+CREATE TABLE aggregate_category_expense
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id       BIGINT  NOT NULL,
+    category_id   BIGINT,
+    expense_year  INTEGER NOT NULL,
+    expense_month TINYINT NOT NULL CHECK (expense_month BETWEEN 0 AND 11),
+    amount        BIGINT  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_aggregate_category_expense_user_month_category
+        UNIQUE NULLS NOT DISTINCT (user_id, expense_year, expense_month, category_id),
+    CONSTRAINT fk_aggregate_category_expense_user FOREIGN KEY (user_id) REFERENCES user_details (user_id),
+    CONSTRAINT fk_aggregate_category_expense_category FOREIGN KEY (category_id) REFERENCES category (category_id)
+);
+
+-- the totals of the expenses that already exist, expense_month is the ordinal of the month (JANUARY = 0)
+INSERT INTO aggregate_category_expense (user_id, category_id, expense_year, expense_month, amount)
+SELECT user_id, category_id, EXTRACT(YEAR FROM date), EXTRACT(MONTH FROM date) - 1, SUM(amount)
+FROM expense
+WHERE user_id IS NOT NULL AND date IS NOT NULL
+GROUP BY user_id, category_id, EXTRACT(YEAR FROM date), EXTRACT(MONTH FROM date) - 1;
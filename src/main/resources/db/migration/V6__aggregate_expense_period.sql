@@ -0,0 +1,9 @@
+-- a single sortable key for the month, year * 12 + month ordinal, so that a range of months is one index range scan
+-- instead of a predicate on two columns that the index can only use up to user_id
+ALTER TABLE aggregate_expense ADD COLUMN expense_period INTEGER GENERATED ALWAYS AS (expense_year * 12 + expense_month);
+CREATE INDEX idx_aggregate_expense_user_period ON aggregate_expense (user_id, expense_period);
+
+ALTER TABLE aggregate_category_expense ADD COLUMN expense_period INTEGER GENERATED ALWAYS AS (expense_year * 12 + expense_month);
+CREATE INDEX idx_aggregate_category_expense_user_period ON aggregate_category_expense (user_id, expense_period);
+
+ALTER TABLE aggregate_expense_delta ADD COLUMN expense_period INTEGER GENERATED ALWAYS AS (expense_year * 12 + expense_month);
@@ -0,0 +1,2 @@
+-- incremented on every password change, so that a cached user can be checked for staleness without hashing again
+ALTER TABLE user_details ADD COLUMN password_version INTEGER DEFAULT 0 NOT NULL;
@@ -0,0 +1,4 @@
+-- the pending deltas are read by expense_period since V6, which the (user_id, expense_year, expense_month) index can
+-- only use up to user_id: every read scanned all the pending deltas of the user. The old index has no reader left
+CREATE INDEX idx_aggregate_expense_delta_user_period ON aggregate_expense_delta (user_id, expense_period);
+DROP INDEX idx_aggregate_expense_delta_user_month;
@@ -17,13 +17,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -39,9 +36,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
-@ActiveProfiles("test")
-@AutoConfigureMockMvc
+@IntegrationTest
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class ExpenseTrackerBackendApplicationTests {
 
@@ -68,8 +63,9 @@ class ExpenseTrackerBackendApplicationTests {
     @Order(1)
     void testSuccessfulTokenGeneration() {
 
-        Authentication mockAuthentication =
+        UsernamePasswordAuthenticationToken mockAuthentication =
                 new UsernamePasswordAuthenticationToken("abcd", null);
+        mockAuthentication.setDetails(2L);
 
         String token = jwtGenerator.generateToken(mockAuthentication).token();
 
@@ -86,6 +82,8 @@ class ExpenseTrackerBackendApplicationTests {
 
         assertEquals(ApplicationConstants.JWT_SUBJECT, subject);
         assertTrue(expireDate.after(new Date()));
+        assertEquals(2L, claims.get(ApplicationConstants.JWT_USER_ID_CLAIM, Long.class));
+        assertEquals(0, claims.get(ApplicationConstants.JWT_TOKEN_VERSION_CLAIM, Integer.class));
     }
 
     @Test
@@ -570,6 +568,11 @@ class ExpenseTrackerBackendApplicationTests {
                         .content("newPassword"))
                 .andExpect(MockMvcResultMatchers.status().isOk());
 
+        // the token issued with the old password is revoked
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expenses")
+                        .header("Authorization", "Bearer " + loginResponse.getAuthToken()))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
         // try login in with old password
         LoginRequestDto loginRequestDto = new LoginRequestDto("test1@gmail.com", "12345");
 
@@ -578,8 +581,14 @@ class ExpenseTrackerBackendApplicationTests {
                         .content(objectMapper.writeValueAsString(loginRequestDto)))
                 .andExpect(MockMvcResultMatchers.status().isForbidden());
 
-        // try login with new password
-        loginUser("test1@gmail.com", "newPassword");
+        // try login with new password, a new token is issued instead of the cached one
+        var newLoginResponse = loginUser("test1@gmail.com", "newPassword");
+
+        assertNotEquals(loginResponse.getAuthToken(), newLoginResponse.getAuthToken());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expenses")
+                        .header("Authorization", "Bearer " + newLoginResponse.getAuthToken()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
 
     }
 }
@@ -0,0 +1,25 @@
+package com.project.expense_tracker_backend;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The application with the test profile and MockMvc, started once and shared by every test class annotated with it.
+ * The tests share the seeded database as well, so each one works on users or months of its own.
+ * <p>
+ * A test that needs other properties gets a context and a database of its own, declare it with
+ * {@link SpringBootTest} directly instead.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+public @interface IntegrationTest {
+}
@@ -0,0 +1,50 @@
+package com.project.expense_tracker_backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    void testCalibrated_Strength_Within_Bounds() {
+
+        assertEquals(5, AdaptiveBCryptPasswordEncoder.calibrateStrength(Duration.ofNanos(1), 5, 7));
+        assertEquals(7, AdaptiveBCryptPasswordEncoder.calibrateStrength(Duration.ofHours(1), 5, 7));
+    }
+
+    @Test
+    void testOther_Strength_Upgraded() {
+
+        AdaptiveBCryptPasswordEncoder passwordEncoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        String encodedPassword = passwordEncoder.encode("12345");
+
+        // the cost is stored in the hash
+        assertTrue(encodedPassword.startsWith("$2a$05$"));
+        assertTrue(passwordEncoder.matches("12345", encodedPassword));
+        assertFalse(passwordEncoder.upgradeEncoding(encodedPassword));
+
+        // a lower cost and a cost more than one step higher both move to the current one
+        assertTrue(passwordEncoder.upgradeEncoding(new AdaptiveBCryptPasswordEncoder(4).encode("12345")));
+        assertTrue(passwordEncoder.upgradeEncoding(new AdaptiveBCryptPasswordEncoder(7).encode("12345")));
+    }
+
+    @Test
+    void testAdjacent_Strengths_Do_Not_Rehash_Back_And_Forth() {
+
+        // two instances whose calibration landed on either side of a rounding boundary
+        AdaptiveBCryptPasswordEncoder lowerEncoder = new AdaptiveBCryptPasswordEncoder(5);
+        AdaptiveBCryptPasswordEncoder higherEncoder = new AdaptiveBCryptPasswordEncoder(6);
+
+        String lowerEncodedPassword = lowerEncoder.encode("12345");
+        String higherEncodedPassword = higherEncoder.encode("12345");
+
+        // the lower cost moves up once, the higher one is then kept by both
+        assertTrue(higherEncoder.upgradeEncoding(lowerEncodedPassword));
+        assertFalse(lowerEncoder.upgradeEncoding(higherEncodedPassword));
+        assertFalse(higherEncoder.upgradeEncoding(higherEncodedPassword));
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.exception.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void testFull_Queue_Rejected_At_Once() throws Exception {
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // holds the only hashing thread until released
+        PasswordEncoder slowPasswordEncoder = new PasswordEncoder() {
+
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+
+                hashing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+
+        BoundedPasswordEncoder passwordEncoder = new BoundedPasswordEncoder(slowPasswordEncoder, 1, 1, meterRegistry);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            // one match running and one waiting in the queue
+            Future<Boolean> running = callers.submit(() -> passwordEncoder.matches("12345", "12345"));
+            assertTrue(hashing.await(10, TimeUnit.SECONDS));
+
+            Future<Boolean> queued = callers.submit(() -> passwordEncoder.matches("12345", "54321"));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (queuedTasks(meterRegistry) < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, queuedTasks(meterRegistry));
+
+            assertThrows(PasswordHashingRejectedException.class, () -> passwordEncoder.matches("12345", "12345"));
+            assertEquals(1, meterRegistry.get(ApplicationConstants.PASSWORD_HASHING_REJECTED_METRIC_NAME).counter().count());
+
+            release.countDown();
+
+            assertTrue(running.get(10, TimeUnit.SECONDS));
+            assertFalse(queued.get(10, TimeUnit.SECONDS));
+
+            // both waited for, or ran on, the hashing thread
+            assertEquals(2, meterRegistry.get("executor.idle")
+                    .tag("name", ApplicationConstants.PASSWORD_HASHING_EXECUTOR_NAME).timer().count());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            passwordEncoder.destroy();
+        }
+    }
+
+    private static double queuedTasks(MeterRegistry meterRegistry) {
+        return meterRegistry.get("executor.queued").tag("name", ApplicationConstants.PASSWORD_HASHING_EXECUTOR_NAME)
+                .gauge().value();
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.InvalidKeyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtCodecTest {
+
+    private static final Date EXPIRATION = new Date(System.currentTimeMillis() + 60_000);
+
+    private JwtCodec jwtCodec;
+
+    @BeforeEach
+    void setUp() {
+        jwtCodec = new JwtCodec(new JwtProperties(newSecret(), "key-1", null, 60_000, 0, 10_000, 30_000));
+    }
+
+    @Test
+    void testEncodeAndDecode() {
+
+        String token = jwtCodec.encode(Map.of(ApplicationConstants.JWT_EMAIL_CLAIM, "test@gmail.com"), EXPIRATION);
+
+        Claims claims = jwtCodec.decode(token);
+
+        assertEquals("test@gmail.com", claims.get(ApplicationConstants.JWT_EMAIL_CLAIM, String.class));
+        assertEquals(ApplicationConstants.JWT_SUBJECT, claims.getSubject());
+    }
+
+    @Test
+    void testRotate_Tokens_Of_Previous_Key_Valid_Until_Retired() {
+
+        String oldToken = jwtCodec.encode(Map.of(ApplicationConstants.JWT_EMAIL_CLAIM, "old@gmail.com"), EXPIRATION);
+
+        jwtCodec.rotate("key-2", newSecret());
+
+        String newToken = jwtCodec.encode(Map.of(ApplicationConstants.JWT_EMAIL_CLAIM, "new@gmail.com"), EXPIRATION);
+
+        assertEquals("old@gmail.com", jwtCodec.decode(oldToken).get(ApplicationConstants.JWT_EMAIL_CLAIM));
+        assertEquals("new@gmail.com", jwtCodec.decode(newToken).get(ApplicationConstants.JWT_EMAIL_CLAIM));
+
+        jwtCodec.retire("key-1");
+
+        assertThrows(InvalidKeyException.class, () -> jwtCodec.decode(oldToken));
+        assertEquals("new@gmail.com", jwtCodec.decode(newToken).get(ApplicationConstants.JWT_EMAIL_CLAIM));
+
+        assertThrows(IllegalArgumentException.class, () -> jwtCodec.retire("key-2"));
+    }
+
+    @Test
+    void testDecode_Previous_Key_From_Configuration() {
+
+        String previousSecret = newSecret();
+
+        JwtCodec previousCodec = new JwtCodec(new JwtProperties(previousSecret, "key-0", null, 60_000, 0, 10_000, 30_000));
+        String token = previousCodec.encode(Map.of(ApplicationConstants.JWT_EMAIL_CLAIM, "test@gmail.com"), EXPIRATION);
+
+        JwtCodec rotatedCodec = new JwtCodec(new JwtProperties(newSecret(), "key-1", Map.of("key-0", previousSecret), 60_000, 0, 10_000, 30_000));
+
+        assertEquals("test@gmail.com", rotatedCodec.decode(token).get(ApplicationConstants.JWT_EMAIL_CLAIM));
+        assertThrows(InvalidKeyException.class, () -> jwtCodec.decode(token));
+    }
+
+    private static String newSecret() {
+        return Encoders.BASE64.encode(Jwts.SIG.HS256.key().build().getEncoded());
+    }
+}
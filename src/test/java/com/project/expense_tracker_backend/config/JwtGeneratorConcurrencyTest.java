@@ -0,0 +1,92 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.IntegrationTest;
+import com.project.expense_tracker_backend.model.User;
+import com.project.expense_tracker_backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@IntegrationTest
+class JwtGeneratorConcurrencyTest {
+
+    private static final int USERS = 10;
+
+    private static final int LOGINS = 100;
+
+    @Autowired
+    private JwtGenerator jwtGenerator;
+
+    @Autowired
+    private JwtCodec jwtCodec;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testGenerateToken_Concurrent_Logins_Build_One_Token_Per_User() throws Exception {
+
+        // users whose password was changed a few times, so that every token has to carry the version of its user
+        List<User> users = new ArrayList<>();
+
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(new User(null, "Concurrent " + i, "jwt-concurrency-" + i + "@gmail.com",
+                    "{bcrypt}$2a$10$AcxxmVRLWBX1cBDitvhBDeqGagTuE3.4VYF7SdE.46hNaq5uzdaKG", i % 3, "1234456667",
+                    LocalDateTime.now(), LocalDateTime.now())));
+        }
+
+        double issuedTokensBefore = meterRegistry.counter("jwt.tokens.issued").count();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        CountDownLatch startSignal = new CountDownLatch(1);
+
+        Map<User, List<Future<String>>> loginsByUser = new HashMap<>();
+
+        for (int i = 0; i < LOGINS; i++) {
+
+            User user = users.get(i % USERS);
+
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(user.getEmail(), null);
+            authentication.setDetails(user.getUserId());
+
+            loginsByUser.computeIfAbsent(user, key -> new ArrayList<>()).add(executorService.submit(() -> {
+                startSignal.await();
+                return jwtGenerator.generateToken(authentication).token();
+            }));
+        }
+
+        startSignal.countDown();
+
+        for (Map.Entry<User, List<Future<String>>> logins : loginsByUser.entrySet()) {
+
+            Set<String> tokens = new HashSet<>();
+
+            for (Future<String> login : logins.getValue()) {
+                tokens.add(login.get(1, TimeUnit.MINUTES));
+            }
+
+            // every login of the user got the same token, issued with the user's password version
+            assertEquals(1, tokens.size());
+
+            VerifiedToken verifiedToken = jwtCodec.verify(tokens.iterator().next());
+
+            assertEquals(logins.getKey().getUserId(), verifiedToken.userId());
+            assertEquals(logins.getKey().getPasswordVersion(), verifiedToken.tokenVersion());
+        }
+
+        executorService.shutdown();
+
+        assertEquals(USERS, meterRegistry.counter("jwt.tokens.issued").count() - issuedTokensBefore);
+    }
+}
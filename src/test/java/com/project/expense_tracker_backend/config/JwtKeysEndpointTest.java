@@ -0,0 +1,76 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.InvalidKeyException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeysEndpointTest {
+
+    private String currentSecret;
+
+    private JwtCodec jwtCodec;
+
+    private JwtKeysEndpoint jwtKeysEndpoint;
+
+    @BeforeEach
+    void setUp() {
+        currentSecret = newSecret();
+        jwtCodec = new JwtCodec(new JwtProperties(currentSecret, "key-1", null, 60_000, 0, 10_000, 30_000));
+        jwtKeysEndpoint = new JwtKeysEndpoint(jwtCodec);
+    }
+
+    @Test
+    void testRotate_And_Retire_Without_Restart() {
+
+        String token = jwtCodec.encode(Map.of(ApplicationConstants.JWT_EMAIL_CLAIM, "test@gmail.com"),
+                new Date(System.currentTimeMillis() + 60_000));
+
+        String newSecret = newSecret();
+
+        WebEndpointResponse<Map<String, Object>> rotation = jwtKeysEndpoint.rotate("key-2", newSecret, currentSecret);
+
+        assertEquals(WebEndpointResponse.STATUS_OK, rotation.getStatus());
+        assertEquals("key-2", rotation.getBody().get("activeKeyId"));
+        assertEquals(Set.of("key-1", "key-2"), rotation.getBody().get("keyIds"));
+
+        // still accepted until the previous key is retired, which needs the secret of the new active key
+        assertNotNull(jwtCodec.verify(token));
+        assertEquals(403, jwtKeysEndpoint.retire("key-1", currentSecret).getStatus());
+        assertEquals(WebEndpointResponse.STATUS_OK, jwtKeysEndpoint.retire("key-1", newSecret).getStatus());
+
+        assertThrows(InvalidKeyException.class, () -> jwtCodec.verify(token));
+    }
+
+    @Test
+    void testRotate_Wrong_Current_Secret_Forbidden() {
+
+        assertEquals(403, jwtKeysEndpoint.rotate("key-2", newSecret(), newSecret()).getStatus());
+        assertEquals(403, jwtKeysEndpoint.rotate("key-2", newSecret(), "not base64 !").getStatus());
+
+        assertEquals("key-1", jwtCodec.activeKeyId());
+    }
+
+    @Test
+    void testRotate_Invalid_Secret_And_Retire_Active_Key_Rejected() {
+
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST,
+                jwtKeysEndpoint.rotate("key-2", Encoders.BASE64.encode(new byte[8]), currentSecret).getStatus());
+        assertEquals(WebEndpointResponse.STATUS_BAD_REQUEST, jwtKeysEndpoint.retire("key-1", currentSecret).getStatus());
+
+        assertEquals(Set.of("key-1"), jwtCodec.keyIds());
+    }
+
+    private static String newSecret() {
+        return Encoders.BASE64.encode(Jwts.SIG.HS256.key().build().getEncoded());
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtValidatorFilterTest {
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private JwtValidatorFilter jwtValidatorFilter;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        meterRegistry = new SimpleMeterRegistry();
+        jwtValidatorFilter.setMeterRegistry(meterRegistry);
+    }
+
+    @Test
+    void testCorrelationId_From_Request_Logged_And_Returned() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", ApplicationConstants.LOGIN_USER_API_PATH);
+        request.setServletPath(ApplicationConstants.LOGIN_USER_API_PATH);
+        request.addHeader(ApplicationConstants.CORRELATION_ID_HEADER, "checkout-42");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertEquals("checkout-42", filter(request, response));
+        assertEquals("checkout-42", response.getHeader(ApplicationConstants.CORRELATION_ID_HEADER));
+
+        // only set for the duration of the request
+        assertNull(MDC.get(ApplicationConstants.MDC_CORRELATION_ID));
+    }
+
+    @Test
+    void testCorrelationId_Generated_When_Missing_Or_Unsafe() throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", ApplicationConstants.LOGIN_USER_API_PATH);
+        request.setServletPath(ApplicationConstants.LOGIN_USER_API_PATH);
+        request.addHeader(ApplicationConstants.CORRELATION_ID_HEADER, "forged\nlog line");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String correlationId = filter(request, response);
+
+        assertNotNull(correlationId);
+        assertNotEquals("forged\nlog line", correlationId);
+        assertEquals(correlationId, response.getHeader(ApplicationConstants.CORRELATION_ID_HEADER));
+    }
+
+    @Test
+    void testJwtValidation_Outcomes_Counted() throws Exception {
+
+        Mockito.when(verifiedTokenCache.verify("valid-token"))
+                .thenReturn(new VerifiedToken("test1@gmail.com", 1L, 0, "default", Instant.now().plusSeconds(60)));
+        Mockito.when(tokenVersionRegistry.isCurrent(1L, 0)).thenReturn(true);
+        Mockito.when(verifiedTokenCache.verify("forged-token")).thenThrow(new JwtException("Invalid signature"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(bearer("valid-token"), response);
+        SecurityContextHolder.clearContext();
+
+        filter(bearer("forged-token"), response);
+
+        assertEquals(1.0, meterRegistry.get(ApplicationConstants.JWT_VALIDATION_METRIC_NAME).tag("outcome", "valid").counter().count());
+        assertEquals(1.0, meterRegistry.get(ApplicationConstants.JWT_VALIDATION_METRIC_NAME).tag("outcome", "invalid").counter().count());
+        assertEquals(0.0, meterRegistry.get(ApplicationConstants.JWT_VALIDATION_METRIC_NAME).tag("outcome", "revoked").counter().count());
+    }
+
+    private MockHttpServletRequest bearer(String token) {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses");
+        request.setServletPath("/api/expenses");
+        request.addHeader(ApplicationConstants.JWT_AUTH_HEADER, "Bearer " + token);
+
+        return request;
+    }
+
+    // the correlation id in the MDC while the rest of the chain handles the request
+    private String filter(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+
+        AtomicReference<String> correlationId = new AtomicReference<>();
+
+        FilterChain filterChain = (chainRequest, chainResponse) ->
+                correlationId.set(MDC.get(ApplicationConstants.MDC_CORRELATION_ID));
+
+        jwtValidatorFilter.doFilter(request, response, filterChain);
+
+        return correlationId.get();
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.dto.LoginRequestDto;
+import com.project.expense_tracker_backend.model.User;
+import com.project.expense_tracker_backend.repository.UserRepository;
+import com.project.expense_tracker_backend.service.ILoginService;
+import com.project.expense_tracker_backend.service.UserDetailsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        // a database of its own, the seeded users are rehashed with a cost the other tests do not log in with
+        "spring.datasource.url=jdbc:h2:mem:password-rehasher-test",
+        // lower than the cost of the seeded users, so that their first login rehashes them
+        "password-hashing.strength=4"
+})
+@ActiveProfiles("test")
+class PasswordRehasherTest {
+
+    private static final String EMAIL = "test1@gmail.com";
+
+    @Autowired
+    private ILoginService loginService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void testOutdated_Cost_Rehashed_After_Login() throws InterruptedException {
+
+        User seededUser = userRepository.findByEmail(EMAIL).orElseThrow();
+
+        assertTrue(seededUser.getPassword().startsWith("{bcrypt}$2a$10$"));
+
+        loginService.loginUserAndGenerateToken(new LoginRequestDto(EMAIL, "12345"));
+
+        // the rehash runs after the login returned
+        User rehashedUser = seededUser;
+
+        for (int attempt = 0; attempt < 100 && rehashedUser.getPassword().equals(seededUser.getPassword()); attempt++) {
+            Thread.sleep(50);
+            rehashedUser = userRepository.findByEmail(EMAIL).orElseThrow();
+        }
+
+        assertTrue(rehashedUser.getPassword().startsWith("{bcrypt}$2a$04$"));
+        assertEquals(seededUser.getPasswordVersion(), rehashedUser.getPasswordVersion());
+
+        // the login cache was evicted, the next login matches the new hash
+        assertNotNull(loginService.loginUserAndGenerateToken(new LoginRequestDto(EMAIL, "12345")).getAuthToken());
+        assertEquals(rehashedUser.getPassword(), userDetailsService.loadUserByUsername(EMAIL).getPassword());
+
+        // a hash made from the user as it was before is not stored over the current one
+        assertFalse(userDetailsService.updateEncodedPassword(seededUser, "{bcrypt}stale"));
+    }
+}
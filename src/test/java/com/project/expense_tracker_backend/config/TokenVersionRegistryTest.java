@@ -0,0 +1,79 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenVersionRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        tokenVersionRegistry = newRegistry();
+    }
+
+    @Test
+    void testIsCurrent_Revoked_Before_Restart_Rejected() {
+
+        when(userRepository.findPasswordVersionById(1L)).thenReturn(Optional.of(2));
+
+        // a new registry starts with nothing cached, as after a restart or on another instance
+        TokenVersionRegistry restartedRegistry = newRegistry();
+
+        assertFalse(restartedRegistry.isCurrent(1L, 0));
+        assertFalse(restartedRegistry.isCurrent(1L, 1));
+        assertTrue(restartedRegistry.isCurrent(1L, 2));
+    }
+
+    @Test
+    void testIsCurrent_Version_Cached() {
+
+        when(userRepository.findPasswordVersionById(1L)).thenReturn(Optional.of(0));
+
+        assertTrue(tokenVersionRegistry.isCurrent(1L, 0));
+        assertTrue(tokenVersionRegistry.isCurrent(1L, 0));
+
+        verify(userRepository, times(1)).findPasswordVersionById(1L);
+    }
+
+    @Test
+    void testRevokeTokens_Saved_Version_Reloaded() {
+
+        when(userRepository.findPasswordVersionById(1L)).thenReturn(Optional.of(0), Optional.of(1));
+
+        assertTrue(tokenVersionRegistry.isCurrent(1L, 0));
+
+        tokenVersionRegistry.revokeTokens(1L);
+
+        assertFalse(tokenVersionRegistry.isCurrent(1L, 0));
+        assertTrue(tokenVersionRegistry.isCurrent(1L, 1));
+    }
+
+    @Test
+    void testIsCurrent_Unknown_User_Rejected() {
+
+        when(userRepository.findPasswordVersionById(3L)).thenReturn(Optional.empty());
+
+        assertNull(tokenVersionRegistry.currentVersion(3L));
+        assertFalse(tokenVersionRegistry.isCurrent(3L, 0));
+    }
+
+    private TokenVersionRegistry newRegistry() {
+        return new TokenVersionRegistry(userRepository,
+                new ConcurrentMapCacheManager(ApplicationConstants.TOKEN_VERSION_CACHE_NAME));
+    }
+}
@@ -19,7 +19,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 public class UsernamePasswordAuthenticationProviderTest {
 
@@ -32,6 +34,9 @@ public class UsernamePasswordAuthenticationProviderTest {
     @Mock
     private CacheManager cacheManager;
 
+    @Mock
+    private PasswordRehasher passwordRehasher;
+
     @InjectMocks
     private UsernamePasswordAuthenticationProvider authenticationProvider;
 
@@ -46,7 +51,7 @@ public class UsernamePasswordAuthenticationProviderTest {
         Authentication mockAuthentication =
                 new UsernamePasswordAuthenticationToken("test@test.com", "encrypted");
 
-    User mockUser = new User(0L, "test", "test@test.com", "encrypted", "mobileNumber", LocalDateTime.now(), LocalDateTime.now());
+    User mockUser = new User(0L, "test", "test@test.com", "encrypted", 0, "mobileNumber", LocalDateTime.now(), LocalDateTime.now());
 
         ConcurrentMapCache cache = new ConcurrentMapCache(ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL);
         cache.putIfAbsent("test@test.com", mockUser);
@@ -60,7 +65,8 @@ public class UsernamePasswordAuthenticationProviderTest {
 
         assertEquals("test@test.com", authentication.getPrincipal().toString());
         assertNull(authentication.getCredentials());
-
+        assertEquals(0L, authentication.getDetails());
+        verify(passwordRehasher).rehashIfOutdated(mockUser, "encrypted");
     }
 
     @Test
@@ -82,7 +88,7 @@ public class UsernamePasswordAuthenticationProviderTest {
         Authentication mockAuthentication =
                 new UsernamePasswordAuthenticationToken("test@test.com", "wrongPassword");
 
-        User mockUser = new User(0L, "test", "test@test.com", "wrongPassword", "mobileNumber", LocalDateTime.now(), LocalDateTime.now());
+        User mockUser = new User(0L, "test", "test@test.com", "wrongPassword", 0, "mobileNumber", LocalDateTime.now(), LocalDateTime.now());
 
         ConcurrentMapCache cache = new ConcurrentMapCache(ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL);
         cache.putIfAbsent("test@test.com", mockUser);
@@ -97,4 +103,49 @@ public class UsernamePasswordAuthenticationProviderTest {
         });
     }
 
+    @Test
+    void testInvalidPassword_Current_Cached_User_Hashed_Once() {
+        Authentication mockAuthentication =
+                new UsernamePasswordAuthenticationToken("test@test.com", "wrongPassword");
+
+        User mockUser = new User(0L, "test", "test@test.com", "encrypted", 3, "mobileNumber", LocalDateTime.now(), LocalDateTime.now());
+
+        ConcurrentMapCache cache = new ConcurrentMapCache(ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL);
+        cache.putIfAbsent("test@test.com", mockUser);
+
+        when(cacheManager.getCache(ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL)).thenReturn(cache);
+        when(userDetailsService.findPasswordVersion("test@test.com")).thenReturn(3);
+        when(passwordEncoder.matches("wrongPassword", "encrypted")).thenReturn(false);
+
+        assertThrows(BadCredentialsException.class, () -> authenticationProvider.authenticate(mockAuthentication));
+
+        // the cached password is the current one, so it is not reloaded and matched again
+        verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(passwordRehasher, never()).rehashIfOutdated(any(), anyString());
+    }
+
+    @Test
+    void testChangedPassword_Stale_Cached_User_Reloaded() {
+        Authentication mockAuthentication =
+                new UsernamePasswordAuthenticationToken("test@test.com", "newPassword");
+
+        User cachedUser = new User(0L, "test", "test@test.com", "oldEncrypted", 0, "mobileNumber", LocalDateTime.now(), LocalDateTime.now());
+        User changedUser = new User(0L, "test", "test@test.com", "newEncrypted", 1, "mobileNumber", LocalDateTime.now(), LocalDateTime.now());
+
+        ConcurrentMapCache cache = new ConcurrentMapCache(ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL);
+        cache.putIfAbsent("test@test.com", cachedUser);
+
+        when(cacheManager.getCache(ApplicationConstants.USER_DETAILS_CACHE_NAME_BY_EMAIL)).thenReturn(cache);
+        when(userDetailsService.findPasswordVersion("test@test.com")).thenReturn(1);
+        when(userDetailsService.loadUserByUsername("test@test.com")).thenReturn(changedUser);
+        when(passwordEncoder.matches("newPassword", "oldEncrypted")).thenReturn(false);
+        when(passwordEncoder.matches("newPassword", "newEncrypted")).thenReturn(true);
+
+        Authentication authentication = authenticationProvider.authenticate(mockAuthentication);
+
+        assertEquals(0L, authentication.getDetails());
+        verify(userDetailsService).evictUserFromCache("test@test.com");
+    }
+
 }
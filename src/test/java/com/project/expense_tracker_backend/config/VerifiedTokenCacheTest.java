@@ -0,0 +1,72 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.InvalidKeyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private JwtCodec jwtCodec;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        jwtCodec = new JwtCodec(new JwtProperties(newSecret(), "key-1", null, 60_000, 0, 10_000, 30_000));
+        meterRegistry = new SimpleMeterRegistry();
+        verifiedTokenCache = new VerifiedTokenCache(jwtCodec,
+                new ConcurrentMapCacheManager(ApplicationConstants.VERIFIED_TOKEN_CACHE_NAME), meterRegistry);
+    }
+
+    @Test
+    void testVerify_Repeated_Token_Decrypted_Once() {
+
+        String token = newToken();
+
+        VerifiedToken first = verifiedTokenCache.verify(token);
+        VerifiedToken second = verifiedTokenCache.verify(token);
+
+        assertEquals("test@gmail.com", second.email());
+        assertEquals(1L, second.userId());
+        assertSame(first, second);
+
+        // only the first verification decrypted the token
+        assertEquals(1, meterRegistry.get("jwt.decryption").timer().count());
+    }
+
+    @Test
+    void testVerify_Cached_Token_Of_Retired_Key_Rejected() {
+
+        String token = newToken();
+
+        verifiedTokenCache.verify(token);
+
+        jwtCodec.rotate("key-2", newSecret());
+        jwtCodec.retire("key-1");
+
+        assertThrows(InvalidKeyException.class, () -> verifiedTokenCache.verify(token));
+    }
+
+    private String newToken() {
+        return jwtCodec.encode(Map.of(ApplicationConstants.JWT_EMAIL_CLAIM, "test@gmail.com",
+                        ApplicationConstants.JWT_USER_ID_CLAIM, 1L,
+                        ApplicationConstants.JWT_TOKEN_VERSION_CLAIM, 0),
+                new Date(System.currentTimeMillis() + 60_000));
+    }
+
+    private static String newSecret() {
+        return Encoders.BASE64.encode(Jwts.SIG.HS256.key().build().getEncoded());
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.expense_tracker_backend.config;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    @Test
+    void testPinned_Virtual_Thread_Recorded() throws Exception {
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        VirtualThreadPinningMonitor pinningMonitor = new VirtualThreadPinningMonitor(meterRegistry);
+        pinningMonitor.start();
+
+        try {
+            // blocking while holding a monitor pins the virtual thread to its carrier
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    sleep(VirtualThreadPinningMonitor.PINNED_THRESHOLD.toMillis() * 3);
+                }
+            }).join();
+
+            // the recording stream delivers its events about once a second
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+            while (pinnedCount(meterRegistry) == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+
+            assertTrue(pinnedCount(meterRegistry) >= 1);
+        } finally {
+            pinningMonitor.stop();
+        }
+    }
+
+    private static long pinnedCount(MeterRegistry meterRegistry) {
+        return meterRegistry.get(ApplicationConstants.VIRTUAL_THREAD_PINNED_METRIC_NAME).timer().count();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
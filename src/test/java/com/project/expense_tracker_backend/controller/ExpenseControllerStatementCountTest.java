@@ -0,0 +1,223 @@
+package com.project.expense_tracker_backend.controller;
+
+import com.project.expense_tracker_backend.IntegrationTest;
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
+import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
+import com.project.expense_tracker_backend.dto.LoginRequestDto;
+import com.project.expense_tracker_backend.dto.LoginResponseDto;
+import com.project.expense_tracker_backend.dto.UserRegistrationDto;
+import com.project.expense_tracker_backend.repository.UserRepository;
+import com.project.expense_tracker_backend.service.IExpenseService;
+import com.project.expense_tracker_backend.service.ILoginService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the SQL statements Hibernate prepares for each endpoint of {@link ExpenseController}, so that a lazy
+ * association loaded per row (N+1 selects) fails the build. The aggregate MERGE goes through JDBC directly and is not
+ * counted. The statistics are turned on in application-test.yml.
+ */
+@IntegrationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExpenseControllerStatementCountTest {
+
+    private static final String EMAIL = "statement-count@gmail.com";
+
+    private static final String[] CATEGORIES = {"Groceries", "Shopping", "Travel", "Movies", "Books"};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IExpenseService expenseService;
+
+    @Autowired
+    private ILoginService loginService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private String authToken;
+
+    private List<ExpenseResponseDto> savedExpenses;
+
+    @BeforeAll
+    void saveExpenses() throws Exception {
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // a user of its own, the seeded users are changed by the other tests sharing the application context
+        loginService.registerNewUser(new UserRegistrationDto("Statement Count", EMAIL, "12345", "0123456789"));
+        long userId = userRepository.findByEmail(EMAIL).orElseThrow().getUserId();
+
+        // every expense of the month in another category, so that loading the categories one by one would show
+        List<ExpenseRequestDto> userExpenses = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+            userExpenses.add(new ExpenseRequestDto("Expense " + i, 10.0 + i, LocalDate.of(2023, 5, 1 + i),
+                    CATEGORIES[i % CATEGORIES.length]));
+        }
+
+        savedExpenses = expenseService.saveUserExpenses(userId, userExpenses);
+
+        String loginResponse = mockMvc.perform(MockMvcRequestBuilders.post(ApplicationConstants.LOGIN_USER_API_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequestDto(EMAIL, "12345"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        authToken = objectMapper.readValue(loginResponse, LoginResponseDto.class).getAuthToken();
+    }
+
+    @Test
+    void testGetUserExpenses_Statements() throws Exception {
+
+        // the expenses with their category names, and the monthly total
+        assertStatementCount(2, () -> mockMvc.perform(authorized(MockMvcRequestBuilders.get("/api/expenses")
+                        .param("yearMonth", "2023-05")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.userExpenses.length()").value(20)));
+
+        // served from the monthly expenses cache
+        assertStatementCount(0, () -> mockMvc.perform(authorized(MockMvcRequestBuilders.get("/api/expenses")
+                        .param("yearMonth", "2023-05")))
+                .andExpect(MockMvcResultMatchers.status().isOk()));
+    }
+
+    @Test
+    void testGetUserExpensePage_Statements() throws Exception {
+
+        // one keyset query, with the categories fetched in the same statement
+        assertStatementCount(1, () -> {
+
+            MvcResult asyncResult = mockMvc.perform(authorized(MockMvcRequestBuilders.get("/api/expenses/page")
+                            .param("from", "2023-05-01")
+                            .param("to", "2023-05-31")))
+                    .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.userExpenses.length()").value(20));
+        });
+    }
+
+    @Test
+    void testGetMonthlyTrend_Statements() throws Exception {
+
+        // one range query for all the months, whatever their number, the months without expenses are filled in with 0
+        assertStatementCount(1, () -> mockMvc.perform(authorized(MockMvcRequestBuilders.get("/api/expenses/trend")
+                        .param("from", "2022-05")
+                        .param("to", "2024-04")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(24))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].yearMonth").value("2022-05"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].amount").value(0.0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[12].yearMonth").value("2023-05"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[23].yearMonth").value("2024-04")));
+    }
+
+    @Test
+    void testGetCategoryExpenses_Statements() throws Exception {
+
+        // read off the category aggregates only, grouped by category in one query, for a month
+        assertStatementCount(1, () -> mockMvc.perform(authorized(MockMvcRequestBuilders.get("/api/expenses/categories")
+                        .param("yearMonth", "2023-05")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(CATEGORIES.length)));
+
+        // and for a month range, whatever its length
+        assertStatementCount(1, () -> mockMvc.perform(authorized(MockMvcRequestBuilders.get("/api/expenses/categories")
+                        .param("from", "2022-05")
+                        .param("to", "2024-04")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(CATEGORIES.length)));
+    }
+
+    @Test
+    void testSaveUserExpenses_Statements() throws Exception {
+
+        List<ExpenseRequestDto> userExpenses = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            userExpenses.add(new ExpenseRequestDto("Saved " + i, 5.0, LocalDate.of(2023, 6, 1 + i),
+                    CATEGORIES[i % CATEGORIES.length]));
+        }
+
+        // one JDBC batch of inserts, the user and the categories are cached and the ids come from the pooled sequence
+        assertStatementCount(1, () -> mockMvc.perform(authorized(MockMvcRequestBuilders.post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userExpenses))))
+                .andExpect(MockMvcResultMatchers.status().isCreated()));
+    }
+
+    @Test
+    void testUpdateUserExpense_Statements() throws Exception {
+
+        ExpenseRequestDto updateExpense = new ExpenseRequestDto();
+        updateExpense.setDescription("Updated");
+        updateExpense.setAmount(99.0);
+
+        // the expense with its category, and the update
+        assertStatementCount(2, () -> mockMvc.perform(authorized(MockMvcRequestBuilders.put("/api/expenses/{expenseId}",
+                                savedExpenses.get(1).getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateExpense))))
+                .andExpect(MockMvcResultMatchers.status().isAccepted())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.category").value(savedExpenses.get(1).getCategory())));
+    }
+
+    @Test
+    void testDeleteUserExpense_Statements() throws Exception {
+
+        // the expense, and the delete
+        assertStatementCount(2, () -> mockMvc.perform(authorized(MockMvcRequestBuilders.delete("/api/expenses/{expenseId}",
+                        savedExpenses.get(2).getId())))
+                .andExpect(MockMvcResultMatchers.status().isNoContent()));
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header("Authorization", "Bearer " + authToken);
+    }
+
+    private void assertStatementCount(long expectedStatements, Request request) throws Exception {
+
+        statistics.clear();
+
+        request.perform();
+
+        assertEquals(expectedStatements, statistics.getPrepareStatementCount());
+    }
+
+    private interface Request {
+
+        void perform() throws Exception;
+    }
+}
@@ -0,0 +1,146 @@
+package com.project.expense_tracker_backend.controller;
+
+import com.project.expense_tracker_backend.IntegrationTest;
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
+import com.project.expense_tracker_backend.dto.LoginRequestDto;
+import com.project.expense_tracker_backend.dto.LoginResponseDto;
+import com.project.expense_tracker_backend.service.IExpenseService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@IntegrationTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExpensePaginationTest {
+
+    private static final long USER_ID = 2L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IExpenseService expenseService;
+
+    private String authToken;
+
+    @BeforeAll
+    void saveExpenses() throws Exception {
+
+        List<ExpenseRequestDto> userExpenses = new ArrayList<>();
+
+        // several expenses per day, so that pages also have to be split between expenses of the same date
+        for (int i = 0; i < 25; i++) {
+            userExpenses.add(new ExpenseRequestDto("March " + i, 10.0 + i, LocalDate.of(2023, 3, 1 + i / 3), "Food"));
+        }
+        userExpenses.add(new ExpenseRequestDto("April", 99.0, LocalDate.of(2023, 4, 2), "Food"));
+
+        expenseService.saveUserExpenses(USER_ID, userExpenses);
+
+        LoginRequestDto loginRequestDto = new LoginRequestDto("test2@gmail.com", "123456");
+
+        String loginResponse = mockMvc.perform(MockMvcRequestBuilders.post(ApplicationConstants.LOGIN_USER_API_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequestDto)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        authToken = objectMapper.readValue(loginResponse, LoginResponseDto.class).getAuthToken();
+    }
+
+    @Test
+    void testGetUserExpensePage_Month_Read_Page_By_Page() throws Exception {
+
+        List<String> descriptions = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+
+        String cursor = null;
+
+        do {
+            MockHttpServletRequestBuilder pageRequest = MockMvcRequestBuilders.get("/api/expenses/page")
+                    .param("yearMonth", "2023-03")
+                    .param("size", "10");
+
+            if (cursor != null) {
+                pageRequest.param("cursor", cursor);
+            }
+
+            JsonNode page = getPage(pageRequest);
+
+            page.get("userExpenses").forEach(expense -> descriptions.add(expense.get("description").asString()));
+            pageSizes.add(page.get("userExpenses").size());
+
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asString();
+
+        } while (cursor != null);
+
+        assertEquals(List.of(10, 10, 5), pageSizes);
+        assertEquals(25, descriptions.size());
+        assertEquals("March 0", descriptions.getFirst());
+        assertEquals("March 24", descriptions.getLast());
+        assertEquals(25, descriptions.stream().distinct().count());
+    }
+
+    @Test
+    void testGetUserExpensePage_Date_Range() throws Exception {
+
+        JsonNode page = getPage(MockMvcRequestBuilders.get("/api/expenses/page")
+                .param("from", "2023-03-09")
+                .param("to", "2023-04-30"));
+
+        // the last expense of March (March 24 on the 9th) and the one of April
+        assertEquals(2, page.get("userExpenses").size());
+        assertEquals("April", page.get("userExpenses").get(1).get("description").asString());
+        assertTrue(page.get("nextCursor").isNull());
+    }
+
+    @Test
+    void testGetUserExpensePage_Invalid_Cursor() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expenses/page")
+                        .param("cursor", "not-a-cursor")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void testGetUserExpensePage_Invalid_Range() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expenses/page")
+                        .param("from", "2023-04-01")
+                        .param("to", "2023-03-01")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private JsonNode getPage(MockHttpServletRequestBuilder pageRequest) throws Exception {
+
+        MvcResult asyncResult = mockMvc.perform(pageRequest.header("Authorization", "Bearer " + authToken))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        String page = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        return objectMapper.readTree(page);
+    }
+}
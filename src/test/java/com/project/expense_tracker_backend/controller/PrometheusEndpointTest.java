@@ -0,0 +1,116 @@
+package com.project.expense_tracker_backend.controller;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.dto.LoginRequestDto;
+import com.project.expense_tracker_backend.dto.LoginResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// on a random port, so that the actuator endpoints get a random management port of their own
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // a context of its own, so a database of its own as well: every context seeds its database at startup
+        "spring.datasource.url=jdbc:h2:mem:prometheus-endpoint-test",
+        // metrics export is turned off in tests unless asked for
+        "management.prometheus.metrics.export.enabled=true"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class PrometheusEndpointTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void testScrape_Service_Repository_Cache_And_Jwt_Metrics_On_Management_Port() throws Exception {
+
+        String loginResponse = mockMvc.perform(MockMvcRequestBuilders.post(ApplicationConstants.LOGIN_USER_API_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequestDto("test1@gmail.com", "12345"))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String authToken = objectMapper.readValue(loginResponse, LoginResponseDto.class).getAuthToken();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expenses")
+                        .param("yearMonth", "2023-05")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        // the API port does not serve the actuator endpoints
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        // not exposed, not even to a logged in user. The security filters apply on the management port as well
+        HttpResponse<String> clearCaches = httpClient.send(managementRequest("/actuator/caches")
+                .header("Authorization", "Bearer " + authToken).DELETE().build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(404, clearCaches.statusCode());
+
+        // scraped without a token
+        HttpResponse<String> scrape = httpClient.send(managementRequest("/actuator/prometheus").build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, scrape.statusCode());
+        assertThat(scrape.body(), containsString(
+                "expense_tracker_service_seconds_bucket{class=\"com.project.expense_tracker_backend.service.impl.ExpenseServiceImpl\""));
+        assertThat(scrape.body(), containsString("method=\"getUserExpenses\""));
+        assertThat(scrape.body(), containsString("method=\"loginUserAndGenerateToken\""));
+        assertThat(scrape.body(), containsString(
+                "spring_data_repository_invocations_seconds_bucket{exception=\"None\",method=\"findExpenseResponsesByUserIdAndDateBetween\""));
+        assertThat(scrape.body(), containsString("cache_hit_ratio{cache=\"" + ApplicationConstants.MONTHLY_EXPENSES_CACHE_NAME + "\"}"));
+        assertThat(scrape.body(), containsString("cache_size{cache=\"" + ApplicationConstants.JWT_CACHE_NAME + "\""));
+        assertThat(scrape.body(), containsString("expense_tracker_jwt_validations_total{outcome=\"valid\"} 2.0"));
+        assertThat(scrape.body(), containsString("executor_queued_tasks{name=\"password.hashing\"}"));
+        assertThat(scrape.body(), containsString("executor_idle_seconds_count{name=\"password.hashing\"}"));
+    }
+
+    @Test
+    void testJwtKeys_On_Management_Port() throws Exception {
+
+        HttpResponse<String> keys = httpClient.send(managementRequest("/actuator/jwtkeys").build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, keys.statusCode());
+        assertThat(keys.body(), containsString("\"activeKeyId\":\"default\""));
+
+        // a new key is only taken from someone who knows the secret of the active one
+        HttpResponse<String> rotation = httpClient.send(managementRequest("/actuator/jwtkeys")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"keyId": "key-2", "secret": "c0NvRllNWE82RXF6TGFLWEtscDlNYzJEa0tkbkFWM2w=", "currentSecret": "d3Jvbmc="}
+                        """))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(403, rotation.statusCode());
+    }
+
+    private HttpRequest.Builder managementRequest(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + managementPort + path));
+    }
+}
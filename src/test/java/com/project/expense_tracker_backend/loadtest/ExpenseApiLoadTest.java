@@ -0,0 +1,465 @@
+package com.project.expense_tracker_backend.loadtest;
+
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
+import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
+import com.project.expense_tracker_backend.dto.LoginRequestDto;
+import com.project.expense_tracker_backend.dto.LoginResponseDto;
+import com.project.expense_tracker_backend.model.User;
+import com.project.expense_tracker_backend.repository.UserRepository;
+import com.project.expense_tracker_backend.service.IExpenseService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a mixed login, list, create, update and delete workload over HTTP against the application on a random port
+ * with its in-memory H2 database, and reports the throughput and latency percentiles of each operation.
+ * <p>
+ * Run with {@code mvn -Ploadtest test}, sized with e.g. {@code -Dloadtest.concurrency=32 -Dloadtest.duration-seconds=60},
+ * and on virtual threads with {@code -Dspring.profiles.include=virtual-threads}. It fails when the p99 of an operation is
+ * more than {@code loadtest.p99-tolerance} times its baseline for the threading mode, which is re-recorded on the machine
+ * the suite runs on with {@code -Dloadtest.update-baseline=true}.
+ */
+@Slf4j
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:expense-api-load-test",
+        "logging.level.root=WARN",
+        "logging.level.org.springframework=WARN",
+        "logging.level.com.project.expense_tracker_backend.loadtest=INFO"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExpenseApiLoadTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 20);
+
+    private static final int EXPENSES_PER_USER = Integer.getInteger("loadtest.expenses-per-user", 500);
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 8);
+
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 10);
+
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 30);
+
+    private static final double P99_TOLERANCE = Double.parseDouble(System.getProperty("loadtest.p99-tolerance", "1.5"));
+
+    private static final boolean UPDATE_BASELINE = Boolean.getBoolean("loadtest.update-baseline");
+
+
+    private static final String PASSWORD = "load-test-password";
+
+    private static final YearMonth FIRST_MONTH = YearMonth.of(2024, 1);
+
+    private static final int MONTHS = 12;
+
+    private static final String[] CATEGORIES = {"Groceries", "Shopping", "Travel", "Movies", "Books"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IExpenseService expenseService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private final List<String> emails = new ArrayList<>();
+
+    private final Map<String, long[]> seededExpenseIds = new HashMap<>();
+
+    @BeforeAll
+    void seedUsersAndExpenses() {
+
+        // one hash for every user, seeding N users should not take N BCrypt rounds
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+
+        for (int i = 0; i < USERS; i++) {
+
+            String email = "loadtest" + i + "@example.com";
+
+            User user = userRepository.save(new User(null, "Load Test " + i, email, encodedPassword, 0, "9999999999",
+                    LocalDateTime.now(), LocalDateTime.now()));
+
+            List<ExpenseRequestDto> userExpenses = new ArrayList<>(EXPENSES_PER_USER);
+
+            for (int j = 0; j < EXPENSES_PER_USER; j++) {
+                userExpenses.add(new ExpenseRequestDto("Seeded " + j, 1.0 + j % 500,
+                        FIRST_MONTH.plusMonths(j % MONTHS).atDay(1 + j % 28), CATEGORIES[j % CATEGORIES.length]));
+            }
+
+            seededExpenseIds.put(email, expenseService.saveUserExpenses(user.getUserId(), userExpenses).stream()
+                    .mapToLong(ExpenseResponseDto::getId)
+                    .toArray());
+
+            emails.add(email);
+        }
+    }
+
+    @Test
+    void testMixedWorkload_P99_Within_Baseline() throws Exception {
+
+        String threadingMode = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                ? "virtual-threads" : "platform-threads";
+
+        Path baselineFile = Path.of("src/test/resources/loadtest/p99-baseline-" + threadingMode + ".properties");
+        Path reportFile = Path.of("target/loadtest-report-" + threadingMode + ".txt");
+
+        runPhase(WARMUP_SECONDS);
+
+        List<VirtualUser> virtualUsers = runPhase(DURATION_SECONDS);
+
+        Map<Operation, long[]> latencies = new EnumMap<>(Operation.class);
+
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, virtualUsers.stream()
+                    .flatMapToLong(virtualUser -> Arrays.stream(virtualUser.latencies.get(operation).toArray()))
+                    .sorted()
+                    .toArray());
+        }
+
+        String report = report(threadingMode, latencies);
+
+        log.info("Load test report, written to {}\n{}", reportFile, report);
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+
+        assertEquals(0, virtualUsers.stream().mapToInt(virtualUser -> virtualUser.errors).sum(), "Failed requests");
+
+        if (UPDATE_BASELINE) {
+            writeBaseline(baselineFile, threadingMode, latencies);
+            return;
+        }
+
+        assertTrue(Files.exists(baselineFile), "No baseline, record one with -Dloadtest.update-baseline=true");
+
+        Properties baseline = new Properties();
+
+        try (Reader reader = Files.newBufferedReader(baselineFile)) {
+            baseline.load(reader);
+        }
+
+        List<String> regressions = new ArrayList<>();
+
+        for (Operation operation : Operation.values()) {
+
+            String baselineP99 = baseline.getProperty(operation.key());
+
+            double p99Millis = toMillis(percentile(latencies.get(operation), 0.99));
+
+            if (baselineP99 != null && p99Millis > Double.parseDouble(baselineP99) * P99_TOLERANCE) {
+                regressions.add(String.format("%s p99 %.1f ms > %s ms baseline x %.2f", operation.key(), p99Millis,
+                        baselineP99, P99_TOLERANCE));
+            }
+        }
+
+        assertTrue(regressions.isEmpty(), String.join("\n", regressions));
+    }
+
+    // every virtual user logs in before the clock starts, and runs the workload mix until the phase is over
+    private List<VirtualUser> runPhase(int seconds) throws Exception {
+
+        List<VirtualUser> virtualUsers = new ArrayList<>(CONCURRENCY);
+
+        for (int i = 0; i < CONCURRENCY; i++) {
+
+            VirtualUser virtualUser = new VirtualUser(emails.get(i % emails.size()));
+            virtualUser.login();
+
+            virtualUsers.add(virtualUser);
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(CONCURRENCY);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+
+            for (VirtualUser virtualUser : virtualUsers) {
+                results.add(executorService.submit(() -> virtualUser.run(deadline)));
+            }
+
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        return virtualUsers;
+    }
+
+    private String report(String threadingMode, Map<Operation, long[]> latencies) {
+
+        long requests = latencies.values().stream().mapToLong(operationLatencies -> operationLatencies.length).sum();
+
+        StringBuilder report = new StringBuilder(String.format(
+                "Load test | %s | %d users x %d expenses | concurrency %d | %d s | %.1f requests/s%n", threadingMode,
+                USERS, EXPENSES_PER_USER, CONCURRENCY, DURATION_SECONDS, (double) requests / DURATION_SECONDS));
+
+        report.append(String.format("%-8s %9s %10s %9s %9s %9s %9s%n", "", "requests", "req/s", "p50 ms", "p95 ms",
+                "p99 ms", "max ms"));
+
+        for (Operation operation : Operation.values()) {
+
+            long[] operationLatencies = latencies.get(operation);
+
+            report.append(String.format("%-8s %9d %10.1f %9.1f %9.1f %9.1f %9.1f%n", operation.key(),
+                    operationLatencies.length, (double) operationLatencies.length / DURATION_SECONDS,
+                    toMillis(percentile(operationLatencies, 0.50)), toMillis(percentile(operationLatencies, 0.95)),
+                    toMillis(percentile(operationLatencies, 0.99)), toMillis(percentile(operationLatencies, 1.0))));
+        }
+
+        return report.toString();
+    }
+
+    // written by hand rather than with Properties.store, which adds a timestamp to every re-recorded baseline
+    private void writeBaseline(Path baselineFile, String threadingMode, Map<Operation, long[]> latencies) throws IOException {
+
+        StringBuilder baseline = new StringBuilder(String.format("# p99 latency in ms, %s, %d users x %d expenses, concurrency %d, %d s%n",
+                threadingMode, USERS, EXPENSES_PER_USER, CONCURRENCY, DURATION_SECONDS));
+
+        for (Operation operation : Operation.values()) {
+            baseline.append(String.format(Locale.ROOT, "%s=%.1f%n", operation.key(),
+                    toMillis(percentile(latencies.get(operation), 0.99))));
+        }
+
+        Files.createDirectories(baselineFile.getParent());
+        Files.writeString(baselineFile, baseline);
+    }
+
+    // nearest rank percentile of sorted latencies in microseconds
+    private static long percentile(long[] sortedLatencies, double percentile) {
+
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+
+        return sortedLatencies[Math.max(0, (int) Math.ceil(percentile * sortedLatencies.length) - 1)];
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private enum Operation {
+
+        LOGIN(2), LIST(58), CREATE(20), UPDATE(12), DELETE(8);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        private String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        private static Operation pick(int roll) {
+
+            for (Operation operation : values()) {
+
+                roll -= operation.weight;
+
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+
+            return LIST;
+        }
+    }
+
+    private final class VirtualUser {
+
+        private final String email;
+
+        private final long[] expenseIds;
+
+        // only the expenses this user created are deleted, so that the virtual users do not delete each other's
+        private final Deque<Long> createdExpenseIds = new ArrayDeque<>();
+
+        private final Map<Operation, Latencies> latencies = new EnumMap<>(Operation.class);
+
+        private String authToken;
+
+        private int errors;
+
+        private VirtualUser(String email) {
+
+            this.email = email;
+            this.expenseIds = seededExpenseIds.get(email);
+
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new Latencies());
+            }
+        }
+
+        private Void run(long deadline) throws Exception {
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            while (System.nanoTime() < deadline) {
+
+                Operation operation = Operation.pick(random.nextInt(100));
+
+                if (operation == Operation.DELETE && createdExpenseIds.isEmpty()) {
+                    operation = Operation.CREATE;
+                }
+
+                long startTime = System.nanoTime();
+
+                boolean succeeded = switch (operation) {
+                    case LOGIN -> login();
+                    case LIST -> list(random);
+                    case CREATE -> create(random);
+                    case UPDATE -> update(random);
+                    case DELETE -> delete();
+                };
+
+                latencies.get(operation).add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime));
+
+                if (!succeeded) {
+                    errors++;
+                }
+            }
+
+            return null;
+        }
+
+        private boolean login() throws IOException, InterruptedException {
+
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri(ApplicationConstants.LOGIN_USER_API_PATH))
+                    .header("Content-Type", "application/json")
+                    .POST(body(new LoginRequestDto(email, PASSWORD))));
+
+            if (response.statusCode() != 200) {
+                return false;
+            }
+
+            authToken = objectMapper.readValue(response.body(), LoginResponseDto.class).getAuthToken();
+
+            return true;
+        }
+
+        private boolean list(ThreadLocalRandom random) throws IOException, InterruptedException {
+
+            YearMonth yearMonth = FIRST_MONTH.plusMonths(random.nextInt(MONTHS));
+
+            return send(authorized("/api/expenses?yearMonth=" + yearMonth).GET()).statusCode() == 200;
+        }
+
+        private boolean create(ThreadLocalRandom random) throws IOException, InterruptedException {
+
+            LocalDate date = FIRST_MONTH.plusMonths(random.nextInt(MONTHS)).atDay(1 + random.nextInt(28));
+
+            HttpResponse<String> response = send(authorized("/api/expenses")
+                    .header("Content-Type", "application/json")
+                    .POST(body(List.of(new ExpenseRequestDto("Load test", 1.0 + random.nextInt(500), date,
+                            CATEGORIES[random.nextInt(CATEGORIES.length)])))));
+
+            if (response.statusCode() != 201) {
+                return false;
+            }
+
+            createdExpenseIds.push(objectMapper.readTree(response.body()).get(0).get("id").asLong());
+
+            return true;
+        }
+
+        private boolean update(ThreadLocalRandom random) throws IOException, InterruptedException {
+
+            ExpenseRequestDto patch = new ExpenseRequestDto();
+            patch.setAmount(1.0 + random.nextInt(500));
+
+            return send(authorized("/api/expenses/" + expenseIds[random.nextInt(expenseIds.length)])
+                    .header("Content-Type", "application/json")
+                    .PUT(body(patch))).statusCode() == 202;
+        }
+
+        private boolean delete() throws IOException, InterruptedException {
+            return send(authorized("/api/expenses/" + createdExpenseIds.pop()).DELETE()).statusCode() == 204;
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + authToken);
+        }
+
+        private HttpRequest.BodyPublisher body(Object value) {
+            return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(value));
+        }
+
+        private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        private URI uri(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+    }
+
+    // a growable array of latencies in microseconds, recorded by one virtual user
+    private static final class Latencies {
+
+        private long[] values = new long[1024];
+
+        private int size;
+
+        private void add(long value) {
+
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+
+            values[size++] = value;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
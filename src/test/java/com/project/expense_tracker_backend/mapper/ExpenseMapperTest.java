@@ -22,8 +22,8 @@ public class ExpenseMapperTest {
 
         long userId = 1L;
 
-        List<Expense> userExpenses = List.of(new Expense(1L, "Lunch", 500.0, LocalDate.now(), getCategory("Food"), getUser(userId)),
-                new Expense(2L, "Iphone", 90000.0, LocalDate.now(), getCategory("Shopping"), getUser(userId)));
+        List<Expense> userExpenses = List.of(new Expense(1L, "Lunch", 50000L, LocalDate.now(), getCategory("Food"), getUser(userId)),
+                new Expense(2L, "Iphone", 9000000L, LocalDate.now(), getCategory("Shopping"), getUser(userId)));
 
         List<ExpenseResponseDto> expenseResponseDto = expenseMapper.expenseToExpenseResponseMapper(userExpenses);
 
@@ -45,7 +45,7 @@ public class ExpenseMapperTest {
                 expenseMapper.expenseRequestToExpenseMapper(0L, requestDto, getCategory("Shopping"), getUser(2L));
 
         assertEquals("Iphone 16 Pro Max", userExpense.getDescription());
-        assertEquals(150000.0, userExpense.getAmount());
+        assertEquals(15000000L, userExpense.getAmount());
         assertEquals("Shopping", userExpense.getCategory().getCategoryName());
     }
 
@@ -55,6 +55,6 @@ public class ExpenseMapperTest {
     }
 
     private User getUser(long userId) {
-        return new User(userId, "Arghya", "test@gmail.com", "encrypted", "1234567890", LocalDateTime.now(), LocalDateTime.now());
+        return new User(userId, "Arghya", "test@gmail.com", "encrypted", 0, "1234567890", LocalDateTime.now(), LocalDateTime.now());
     }
 }
@@ -0,0 +1,82 @@
+package com.project.expense_tracker_backend.mapper;
+
+import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
+import com.project.expense_tracker_backend.exception.InvalidExpenseUpdateException;
+import com.project.expense_tracker_backend.model.Category;
+import com.project.expense_tracker_backend.model.Expense;
+import com.project.expense_tracker_backend.service.CategoryDictionary;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExpensePatchApplierTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private final CategoryDictionary categoryDictionary = mock(CategoryDictionary.class);
+
+    private final ExpensePatchApplier expensePatchApplier = new ExpensePatchApplier(categoryDictionary);
+
+    @Test
+    void testApplyPatch_Absent_Properties_Unchanged() {
+
+        Expense expense = getExpense();
+
+        expensePatchApplier.applyPatch(readPatch("{\"description\": \"Dinner\"}"), expense);
+
+        assertEquals("Dinner", expense.getDescription());
+        assertEquals(50000L, expense.getAmount());
+        assertEquals(LocalDate.of(2024, 7, 1), expense.getDate());
+        assertEquals("Food", expense.getCategory().getCategoryName());
+        verifyNoInteractions(categoryDictionary);
+    }
+
+    @Test
+    void testApplyPatch_All_Properties() {
+
+        Expense expense = getExpense();
+        when(categoryDictionary.resolve("Shopping")).thenReturn(new Category(2L, "Shopping"));
+
+        expensePatchApplier.applyPatch(readPatch("""
+                {"description": "Shirt", "amount": 12.5, "date": "2024-08-02", "categoryName": "Shopping"}"""), expense);
+
+        assertEquals("Shirt", expense.getDescription());
+        assertEquals(1250L, expense.getAmount());
+        assertEquals(LocalDate.of(2024, 8, 2), expense.getDate());
+        assertEquals("Shopping", expense.getCategory().getCategoryName());
+    }
+
+    @Test
+    void testApplyPatch_Null_Removes_Description() {
+
+        Expense expense = getExpense();
+
+        expensePatchApplier.applyPatch(readPatch("{\"description\": null}"), expense);
+
+        assertNull(expense.getDescription());
+        assertEquals(50000L, expense.getAmount());
+    }
+
+    @Test
+    void testApplyPatch_Null_Required_Property_Rejected() {
+
+        assertThrows(InvalidExpenseUpdateException.class,
+                () -> expensePatchApplier.applyPatch(readPatch("{\"amount\": null}"), getExpense()));
+        assertThrows(InvalidExpenseUpdateException.class,
+                () -> expensePatchApplier.applyPatch(readPatch("{\"date\": null}"), getExpense()));
+        assertThrows(InvalidExpenseUpdateException.class,
+                () -> expensePatchApplier.applyPatch(readPatch("{\"categoryName\": null}"), getExpense()));
+    }
+
+    private ExpenseRequestDto readPatch(String json) {
+        return jsonMapper.readValue(json, ExpenseRequestDto.class);
+    }
+
+    private Expense getExpense() {
+        return new Expense(1L, "Lunch", 50000L, LocalDate.of(2024, 7, 1), new Category(1L, "Food"), null);
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.expense_tracker_backend.repository;
+
+import com.project.expense_tracker_backend.IntegrationTest;
+import com.project.expense_tracker_backend.model.AggregateExpense;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@IntegrationTest
+class AggregateExpenseRepositoryTest {
+
+    private static final int WRITES = 1000;
+
+    @Autowired
+    private AggregateExpenseRepository aggregateExpenseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void testAddToMonthlyAmount_Parallel_Writes_Are_Not_Lost() throws Exception {
+
+        long userId = userRepository.findByEmail("test2@gmail.com").orElseThrow().getUserId();
+
+        // a month without an aggregate yet, so that the first writes also race on creating the row
+        YearMonth yearMonth = YearMonth.of(2021, 3);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        CountDownLatch startSignal = new CountDownLatch(1);
+
+        List<Future<?>> writes = new ArrayList<>();
+
+        for (int i = 0; i < WRITES; i++) {
+
+            // alternate additions and (smaller) subtractions, like expenses being added and removed
+            long delta = (i % 2 == 0) ? 250 : -125;
+
+            writes.add(executorService.submit(() -> {
+                startSignal.await();
+                aggregateExpenseRepository.addToMonthlyAmount(userId, yearMonth, delta);
+                return null;
+            }));
+        }
+
+        startSignal.countDown();
+
+        for (Future<?> write : writes) {
+            write.get(1, TimeUnit.MINUTES);
+        }
+
+        executorService.shutdown();
+
+        AggregateExpense aggregateExpense = aggregateExpenseRepository
+                .findAggregateExpenseByUserUserIdAndExpenseMonthAndExpenseYear(userId, yearMonth.getMonth(), yearMonth.getYear())
+                .orElseThrow();
+
+        assertEquals(WRITES / 2 * 250 - WRITES / 2 * 125, aggregateExpense.getAmount());
+    }
+}
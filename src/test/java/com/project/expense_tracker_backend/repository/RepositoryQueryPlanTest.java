@@ -0,0 +1,239 @@
+package com.project.expense_tracker_backend.repository;
+
+import com.project.expense_tracker_backend.util.DateUtil;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN on the SQL behind every repository query method, and on the SQL the repository fragments send through
+ * JdbcTemplate, and fails if H2 plans a full table scan for it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:repository-query-plan-test",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.project.expense_tracker_backend.repository.RepositoryQueryPlanTest$RecordingStatementInspector"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final List<String> executedStatements = new CopyOnWriteArrayList<>();
+
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\* PUBLIC\\.[\\w.]+ \\*/");
+
+    private static final LocalDate FROM_DATE = LocalDate.of(2023, 3, 1);
+
+    private static final LocalDate TO_DATE = LocalDate.of(2023, 3, 31);
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private AggregateExpenseRepository aggregateExpenseRepository;
+
+    @Autowired
+    private AggregateCategoryExpenseRepository aggregateCategoryExpenseRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void saveExpenses() throws SQLException {
+
+        // with (nearly) empty tables every index costs the same, so give the planner a year of expenses of both users
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+
+            statement.executeUpdate("""
+                    INSERT INTO expense (expense_id, description, amount, date, user_id)
+                    SELECT 1000000 + x, 'Expense ' || x, 100, DATEADD(DAY, MOD(x, 365), DATE '2023-01-01'), MOD(x, 2) + 1
+                    FROM SYSTEM_RANGE(1, 5000)""");
+
+            // and 20 years of monthly totals, in two categories
+            statement.executeUpdate("""
+                    INSERT INTO aggregate_expense (user_id, expense_year, expense_month, amount)
+                    SELECT MOD(x, 2) + 1, 2000 + x / 24, MOD(x / 2, 12), 100
+                    FROM SYSTEM_RANGE(0, 479)""");
+            statement.executeUpdate("""
+                    INSERT INTO aggregate_category_expense (user_id, category_id, expense_year, expense_month, amount)
+                    SELECT MOD(x, 2) + 1, NULL, 2000 + x / 24, MOD(x / 2, 12), 100
+                    FROM SYSTEM_RANGE(0, 479)""");
+            // and as many pending deltas, as when the folder falls behind
+            statement.executeUpdate("""
+                    INSERT INTO aggregate_expense_delta (user_id, expense_year, expense_month, amount)
+                    SELECT MOD(x, 2) + 1, 2000 + x / 24, MOD(x / 2, 12), 100
+                    FROM SYSTEM_RANGE(0, 479)""");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void testExpenseQueries_Use_Index() throws SQLException {
+
+        String datePlan = explain(() -> expenseRepository.findExpenseResponsesByUserIdAndDateBetween(2L, FROM_DATE, TO_DATE),
+                2L, FROM_DATE, TO_DATE);
+        assertTrue(datePlan.contains("IDX_EXPENSE_USER_DATE"), datePlan);
+        // the projection joins the category in the same statement and never loads the user
+        assertEquals(1, executedStatements.size());
+        assertFalse(datePlan.contains("USER_DETAILS"), datePlan);
+
+        explain(() -> expenseRepository.findByExpenseIdAndUserUserId(1L, 2L), 1L, 2L);
+        explain(() -> expenseRepository.findByUserUserId(2L), 2L);
+
+        String pagePlan = explain(() -> transactionTemplate.executeWithoutResult(status ->
+                        expenseRepository.streamByUserUserIdAndDateBetweenAfter(2L, FROM_DATE, TO_DATE, FROM_DATE, 0L, Limit.of(10))
+                                .close()),
+                2L, FROM_DATE, TO_DATE, FROM_DATE, FROM_DATE, 0L, 10);
+        assertTrue(pagePlan.contains("IDX_EXPENSE_USER_DATE"), pagePlan);
+    }
+
+    @Test
+    void testAggregateExpenseQueries_Use_Index() throws SQLException {
+
+        explain(() -> aggregateExpenseRepository.findAggregateExpenseByUserUserIdAndExpenseMonthAndExpenseYear(2L, Month.MARCH, 2023),
+                2L, Month.MARCH.ordinal(), 2023);
+
+        // a range of months is one range scan of the period key
+        String trendPlan = explain(() -> aggregateExpenseRepository.findMonthlyTotalsByUserIdAndPeriodBetween(2L,
+                DateUtil.toPeriod(YearMonth.of(2010, 1)), DateUtil.toPeriod(YearMonth.of(2011, 12))), 2L, 2010 * 12, 2011 * 12 + 11);
+        assertTrue(trendPlan.contains("IDX_AGGREGATE_EXPENSE_USER_PERIOD"), trendPlan);
+
+        String categoryPlan = explain(() -> aggregateCategoryExpenseRepository.findCategoryTotalsByUserIdAndPeriodBetween(2L,
+                DateUtil.toPeriod(YearMonth.of(2010, 1)), DateUtil.toPeriod(YearMonth.of(2011, 12))), 2L, 2010 * 12, 2011 * 12 + 11);
+        assertTrue(categoryPlan.contains("IDX_AGGREGATE_CATEGORY_EXPENSE_USER_PERIOD"), categoryPlan);
+    }
+
+    @Test
+    void testAggregateExpenseJdbcQueries_Use_Index() throws SQLException {
+
+        int period = DateUtil.toPeriod(YearMonth.of(2010, 3));
+
+        // both the folded total and the pending deltas of the month are read by the period key
+        String monthPlan = explain(AggregateExpenseRepositoryCustomImpl.SUM_MONTHLY_AMOUNT_WITH_PENDING_DELTAS,
+                2L, period, 2L, period);
+        assertTrue(monthPlan.contains("IDX_AGGREGATE_EXPENSE_USER_PERIOD"), monthPlan);
+        assertTrue(monthPlan.contains("IDX_AGGREGATE_EXPENSE_DELTA_USER_PERIOD"), monthPlan);
+
+        String trendPlan = explain(AggregateExpenseRepositoryCustomImpl.SUM_MONTHLY_AMOUNTS_WITH_PENDING_DELTAS,
+                2L, 2010 * 12, 2011 * 12 + 11, 2L, 2010 * 12, 2011 * 12 + 11);
+        assertTrue(trendPlan.contains("IDX_AGGREGATE_EXPENSE_USER_PERIOD"), trendPlan);
+        assertTrue(trendPlan.contains("IDX_AGGREGATE_EXPENSE_DELTA_USER_PERIOD"), trendPlan);
+
+        String upsertPlan = explain(AggregateExpenseRepositoryCustomImpl.UPSERT_MONTHLY_AMOUNT, 2L, 2010, 2, 100L);
+        assertTrue(upsertPlan.contains("UK_AGGREGATE_EXPENSE_USER_MONTH"), upsertPlan);
+
+        String categoryUpsertPlan = explain(AggregateCategoryExpenseRepositoryCustomImpl.UPSERT_CATEGORY_AMOUNT,
+                2L, null, 2010, 2, 100L);
+        assertTrue(categoryUpsertPlan.contains("UK_AGGREGATE_CATEGORY_EXPENSE_USER_MONTH_CATEGORY"), categoryUpsertPlan);
+
+        explain(AggregateExpenseRepositoryCustomImpl.DELETE_DELTA, 1L);
+    }
+
+    @Test
+    void testFoldQuery_Reads_Oldest_Deltas_In_Key_Order() throws SQLException {
+
+        // the head of the outbox, read in primary key order without sorting, the limit stops the read early
+        String foldPlan = explainPlan(AggregateExpenseRepositoryCustomImpl.SELECT_PENDING_DELTAS, 100);
+        assertTrue(foldPlan.contains("PRIMARY_KEY"), foldPlan);
+        assertTrue(foldPlan.contains("/* index sorted */"), foldPlan);
+    }
+
+    @Test
+    void testCategoryAndUserQueries_Use_Index() throws SQLException {
+
+        explain(() -> categoryRepository.findByCategoryName("Groceries"), "Groceries");
+        explain(() -> categoryRepository.findByNormalisedCategoryNameIn(List.of("groceries", "shopping")), "groceries", "shopping");
+        explain(() -> userRepository.findByEmail("test2@gmail.com"), "test2@gmail.com");
+    }
+
+    /**
+     * Runs the repository query, then EXPLAINs the statement it sent with the given parameters bound (H2 only uses an
+     * index for a condition once it knows the type of the value) and asserts that every table is read through an index
+     * condition. Statements for loading associations by id are not checked.
+     */
+    private String explain(Runnable query, Object... parameters) throws SQLException {
+
+        executedStatements.clear();
+        query.run();
+
+        assertFalse(executedStatements.isEmpty());
+
+        return explain(executedStatements.getFirst(), parameters);
+    }
+
+    /**
+     * EXPLAINs SQL that is sent through JDBC directly, with the same check as the repository query methods.
+     */
+    private String explain(String sql, Object... parameters) throws SQLException {
+
+        String plan = explainPlan(sql, parameters);
+
+        // a table scan, or an index read from start to end, shows up without a condition
+        assertFalse(FULL_SCAN.matcher(plan).find(), () -> "Full scan for: " + sql + "\n" + plan);
+
+        return plan;
+    }
+
+    private String explainPlan(String sql, Object... parameters) throws SQLException {
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+
+            for (int i = 0; i < parameters.length; i++) {
+                explain.setObject(i + 1, parameters[i]);
+            }
+
+            try (ResultSet result = explain.executeQuery()) {
+
+                result.next();
+
+                return result.getString(1);
+            }
+        }
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+
+            if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                executedStatements.add(sql);
+            }
+
+            return sql;
+        }
+    }
+}
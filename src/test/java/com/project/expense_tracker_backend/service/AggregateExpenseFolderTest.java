@@ -0,0 +1,130 @@
+package com.project.expense_tracker_backend.service;
+
+import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
+import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
+import com.project.expense_tracker_backend.dto.MonthlyExpenseDto;
+import com.project.expense_tracker_backend.model.AggregateExpense;
+import com.project.expense_tracker_backend.repository.AggregateExpenseRepository;
+import com.project.expense_tracker_backend.repository.AggregateExpenseRepositoryCustomImpl;
+import com.project.expense_tracker_backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+        // a database of its own, the aggregates are written through the outbox instead of in place
+        "spring.datasource.url=jdbc:h2:mem:aggregate-expense-folder-test",
+        "expense.aggregate-mode=outbox",
+        // the test folds the deltas itself
+        "expense.aggregate-fold-interval=1h",
+        "expense.aggregate-fold-batch-size=2"
+})
+@ActiveProfiles("test")
+class AggregateExpenseFolderTest {
+
+    private static final YearMonth YEAR_MONTH = YearMonth.of(2019, 7);
+
+    @Autowired
+    private AggregateExpenseFolder aggregateExpenseFolder;
+
+    @Autowired
+    private IExpenseService expenseService;
+
+    @MockitoSpyBean
+    private AggregateExpenseRepository aggregateExpenseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void testOutbox_Total_Read_Before_And_After_Fold() {
+
+        long userId = userRepository.findByEmail("test2@gmail.com").orElseThrow().getUserId();
+
+        List<ExpenseResponseDto> savedExpenses = expenseService.saveUserExpenses(userId, List.of(
+                new ExpenseRequestDto("Rent", 1000.0, YEAR_MONTH.atDay(1), "Housing"),
+                new ExpenseRequestDto("Groceries", 80.5, YEAR_MONTH.atDay(3), "Food")));
+
+        expenseService.updateUserExpense(userId, savedExpenses.getLast().getId(),
+                new ExpenseRequestDto("Groceries", 90.5, LocalDate.of(2019, 7, 3), "Food"));
+
+        expenseService.saveUserExpenses(userId, List.of(
+                new ExpenseRequestDto("Cinema", 12.0, YEAR_MONTH.atDay(5), "Leisure")));
+
+        expenseService.deleteUserExpense(savedExpenses.getFirst().getId(), userId);
+
+        // nothing is folded yet, the total is made of the pending deltas only
+        assertTrue(findAggregateExpense(userId).isEmpty());
+        assertEquals(102.5, expenseService.getTotalMonthlyUserExpense(YEAR_MONTH.toString(), userId));
+        assertEquals(102.5, expenseService.getMonthlyTrend("2019-06", "2019-08", userId).get(1).getAmount());
+
+        // more deltas than fit in one batch, the folder keeps going until the outbox is drained
+        aggregateExpenseFolder.foldPendingDeltas();
+
+        assertEquals(10250L, findAggregateExpense(userId).orElseThrow().getAmount());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM aggregate_expense_delta", Integer.class));
+        assertEquals(102.5, expenseService.getTotalMonthlyUserExpense(YEAR_MONTH.toString(), userId));
+    }
+
+    @Test
+    void testOutbox_Fold_Committed_While_Total_Is_Read_Not_Lost() {
+
+        long userId = userRepository.findByEmail("test1@gmail.com").orElseThrow().getUserId();
+
+        YearMonth yearMonth = YearMonth.of(2019, 9);
+
+        expenseService.saveUserExpenses(userId, List.of(new ExpenseRequestDto("Rent", 1000.0, yearMonth.atDay(1), "Housing")));
+        aggregateExpenseFolder.foldPendingDeltas();
+
+        expenseService.saveUserExpenses(userId, List.of(new ExpenseRequestDto("Groceries", 80.5, yearMonth.atDay(3), "Food")));
+
+        // the pending delta is folded as soon as the total has been read. Had the folded total and the pending deltas
+        // been read separately, the fold would have removed the delta from the second read after the first one missed it
+        // the repository proxy has no real method to call, the statements are run by the custom implementation
+        AggregateExpenseRepositoryCustomImpl aggregateExpenseRepositoryCustom = new AggregateExpenseRepositoryCustomImpl(jdbcTemplate);
+
+        doAnswer(invocation -> {
+            Long monthlyAmount = aggregateExpenseRepositoryCustom.findMonthlyAmountWithPendingDeltas(userId, yearMonth);
+            aggregateExpenseFolder.foldPendingDeltas();
+            return monthlyAmount;
+        }).when(aggregateExpenseRepository).findMonthlyAmountWithPendingDeltas(userId, yearMonth);
+
+        assertEquals(1080.5, expenseService.getTotalMonthlyUserExpense(yearMonth.toString(), userId));
+
+        // and the same total was cached
+        assertEquals(1080.5, expenseService.getTotalMonthlyUserExpense(yearMonth.toString(), userId));
+
+        expenseService.saveUserExpenses(userId, List.of(new ExpenseRequestDto("Cinema", 12.0, yearMonth.atDay(5), "Leisure")));
+
+        doAnswer(invocation -> {
+            List<MonthlyExpenseDto> monthlyTotals = aggregateExpenseRepositoryCustom.findMonthlyTotalsWithPendingDeltas(
+                    userId, invocation.getArgument(1), invocation.getArgument(2));
+            aggregateExpenseFolder.foldPendingDeltas();
+            return monthlyTotals;
+        }).when(aggregateExpenseRepository).findMonthlyTotalsWithPendingDeltas(eq(userId), anyInt(), anyInt());
+
+        assertEquals(1092.5, expenseService.getMonthlyTrend("2019-08", "2019-10", userId).get(1).getAmount());
+        assertEquals(1092.5, expenseService.getMonthlyTrend("2019-08", "2019-10", userId).get(1).getAmount());
+    }
+
+    private Optional<AggregateExpense> findAggregateExpense(long userId) {
+        return aggregateExpenseRepository.findAggregateExpenseByUserUserIdAndExpenseMonthAndExpenseYear(
+                userId, YEAR_MONTH.getMonth(), YEAR_MONTH.getYear());
+    }
+}
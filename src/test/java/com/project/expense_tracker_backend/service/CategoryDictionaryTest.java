@@ -0,0 +1,93 @@
+package com.project.expense_tracker_backend.service;
+
+import com.project.expense_tracker_backend.model.Category;
+import com.project.expense_tracker_backend.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class CategoryDictionaryTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CategoryDictionary categoryDictionary;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        categoryDictionary = new CategoryDictionary(categoryRepository, transactionManager);
+    }
+
+    @Test
+    void testResolveAll_Warm_Dictionary_Does_Not_Query() {
+
+        Category groceries = new Category(1L, "Groceries");
+
+        when(categoryRepository.findAll()).thenReturn(List.of(groceries));
+
+        categoryDictionary.warmUp();
+
+        Map<String, Category> categories = categoryDictionary.resolveAll(List.of("Groceries", " groceries ", "Groceries"));
+
+        assertEquals(2, categories.size());
+        assertSame(groceries, categories.get("Groceries"));
+        assertSame(groceries, categories.get(" groceries "));
+
+        verify(categoryRepository, never()).findByNormalisedCategoryNameIn(anyCollection());
+        verify(categoryRepository, never()).saveAllAndFlush(any());
+    }
+
+    @Test
+    void testResolveAll_Creates_Missing_Categories_In_One_Batch() {
+
+        Category food = new Category(2L, "Food");
+
+        when(categoryRepository.findByNormalisedCategoryNameIn(anyCollection())).thenReturn(List.of(food));
+        when(categoryRepository.saveAllAndFlush(any())).thenReturn(List.of(new Category(3L, "Movies")));
+
+        Map<String, Category> categories = categoryDictionary.resolveAll(List.of("Food", "Movies", "movies", "Food"));
+
+        assertEquals(2L, categories.get("Food").getCategoryId());
+        assertEquals(3L, categories.get("Movies").getCategoryId());
+        assertEquals(3L, categories.get("movies").getCategoryId());
+
+        verify(categoryRepository, times(1)).findByNormalisedCategoryNameIn(anyCollection());
+        verify(categoryRepository, times(1)).saveAllAndFlush(any());
+
+        // now served from the dictionary
+        assertEquals(3L, categoryDictionary.resolve("MOVIES").getCategoryId());
+        verifyNoMoreInteractions(categoryRepository);
+    }
+
+    @Test
+    void testResolve_Category_Created_Concurrently_By_Another_Node() {
+
+        when(categoryRepository.findByNormalisedCategoryNameIn(anyCollection()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new Category(4L, "Travel")));
+        when(categoryRepository.saveAllAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("Unique index or primary key violation"));
+
+        Category travel = categoryDictionary.resolve("Travel");
+
+        assertEquals(4L, travel.getCategoryId());
+        verify(categoryRepository, times(2)).findByNormalisedCategoryNameIn(anyCollection());
+        verify(categoryRepository, times(1)).saveAllAndFlush(any());
+    }
+}
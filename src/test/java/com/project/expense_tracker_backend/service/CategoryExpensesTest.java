@@ -0,0 +1,106 @@
+package com.project.expense_tracker_backend.service;
+
+import com.project.expense_tracker_backend.IntegrationTest;
+import com.project.expense_tracker_backend.dto.CategoryExpenseDto;
+import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
+import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
+import com.project.expense_tracker_backend.exception.InvalidExpenseQueryException;
+import com.project.expense_tracker_backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@IntegrationTest
+class CategoryExpensesTest {
+
+    // the category totals recomputed from the expenses, to compare the aggregates against
+    private static final String SUM_EXPENSES_PER_CATEGORY = """
+            SELECT c.category_name, SUM(e.amount) AS amount
+            FROM expense e LEFT JOIN category c ON c.category_id = e.category_id
+            WHERE e.user_id = ? AND e.date BETWEEN DATE '2018-11-01' AND DATE '2019-02-28'
+            GROUP BY c.category_name
+            HAVING SUM(e.amount) <> 0
+            """;
+
+    @Autowired
+    private IExpenseService expenseService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testCategoryExpenses_Follow_Save_Update_And_Delete() {
+
+        long userId = userRepository.findByEmail("test2@gmail.com").orElseThrow().getUserId();
+
+        List<ExpenseResponseDto> savedExpenses = expenseService.saveUserExpenses(userId, List.of(
+                new ExpenseRequestDto("Rent", 900.0, LocalDate.of(2018, 12, 1), "Housing"),
+                new ExpenseRequestDto("Groceries", 60.25, LocalDate.of(2018, 12, 4), "Food"),
+                new ExpenseRequestDto("Bakery", 4.75, LocalDate.of(2018, 12, 9), "Food"),
+                new ExpenseRequestDto("Gift", 30.0, LocalDate.of(2018, 12, 20), null),
+                new ExpenseRequestDto("Rent", 900.0, LocalDate.of(2019, 1, 1), "Housing"),
+                new ExpenseRequestDto("Train", 25.0, LocalDate.of(2019, 1, 8), "Travel")));
+
+        // the bakery moves to another category, the train to another month, and the gift is deleted
+        ExpenseRequestDto categoryChange = new ExpenseRequestDto();
+        categoryChange.setCategoryName("Treats");
+        expenseService.updateUserExpense(userId, savedExpenses.get(2).getId(), categoryChange);
+
+        ExpenseRequestDto monthChange = new ExpenseRequestDto();
+        monthChange.setDate(LocalDate.of(2019, 2, 8));
+        monthChange.setAmount(27.5);
+        expenseService.updateUserExpense(userId, savedExpenses.get(5).getId(), monthChange);
+
+        expenseService.deleteUserExpense(savedExpenses.get(3).getId(), userId);
+
+        assertEquals(Map.of("Housing", 900.0, "Food", 60.25, "Treats", 4.75),
+                totals(expenseService.getCategoryExpenses("2018-12", null, null, userId)));
+
+        List<CategoryExpenseDto> rangeTotals = expenseService.getCategoryExpenses(null, "2018-11", "2019-02", userId);
+
+        assertEquals(Map.of("Housing", 1800.0, "Food", 60.25, "Treats", 4.75, "Travel", 27.5), totals(rangeTotals));
+        assertEquals("Housing", rangeTotals.getFirst().getCategory());
+
+        // the aggregates agree with the expenses they are made of
+        Map<String, Double> expenseTotals = new HashMap<>();
+        jdbcTemplate.query(SUM_EXPENSES_PER_CATEGORY, resultSet -> {
+            expenseTotals.put(resultSet.getString("category_name"), resultSet.getLong("amount") / 100.0);
+        }, userId);
+
+        assertEquals(expenseTotals, totals(rangeTotals));
+    }
+
+    @Test
+    void testCategory_Differing_Only_In_Case_And_Whitespace_Rejected() {
+
+        // the dictionary matches " shopping " to the seeded "Shopping", a concurrent insert has to fail as well
+        assertThrows(DataIntegrityViolationException.class, () ->
+                jdbcTemplate.update("INSERT INTO category (category_id, category_name) VALUES (-1, ' shopping ')"));
+    }
+
+    @Test
+    void testCategoryExpenses_Invalid_Range() {
+
+        assertThrows(InvalidExpenseQueryException.class,
+                () -> expenseService.getCategoryExpenses(null, "2019-02", null, 1L));
+        assertThrows(InvalidExpenseQueryException.class,
+                () -> expenseService.getCategoryExpenses(null, "2019-02", "2018-11", 1L));
+    }
+
+    private static Map<String, Double> totals(List<CategoryExpenseDto> categoryExpenses) {
+
+        Map<String, Double> totals = new HashMap<>();
+        categoryExpenses.forEach(categoryExpense -> totals.put(categoryExpense.getCategory(), categoryExpense.getAmount()));
+
+        return totals;
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.expense_tracker_backend.service.impl;
+
+import com.project.expense_tracker_backend.IntegrationTest;
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
+import com.project.expense_tracker_backend.dto.LoginRequestDto;
+import com.project.expense_tracker_backend.dto.LoginResponseDto;
+import com.project.expense_tracker_backend.dto.UserRegistrationDto;
+import com.project.expense_tracker_backend.repository.UserRepository;
+import com.project.expense_tracker_backend.service.ILoginService;
+import com.project.expense_tracker_backend.service.UserDetailsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import tools.jackson.databind.ObjectMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@IntegrationTest
+class ChangePasswordTest {
+
+    private static final String EMAIL = "change-password@gmail.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ILoginService loginService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testChangeUserPassword_Stale_Cached_User_Tokens_Stay_Revoked() throws Exception {
+
+        loginService.registerNewUser(new UserRegistrationDto("Change Password", EMAIL, "12345", "0123456789"));
+        long userId = userRepository.findByEmail(EMAIL).orElseThrow().getUserId();
+
+        // cached here on version 0, then the password is changed on another instance
+        userDetailsService.loadUserById(userId);
+        jdbcTemplate.update("UPDATE user_details SET password_version = password_version + 1 WHERE user_id = ?", userId);
+
+        String authToken = login("12345");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expenses").header("Authorization", "Bearer " + authToken))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        loginService.changeUserPassword("newPassword", userId);
+
+        // the version moved past the one the token was issued with, not to it
+        assertEquals(2, userRepository.findPasswordVersionById(userId).orElseThrow());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expenses").header("Authorization", "Bearer " + authToken))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        String newAuthToken = login("newPassword");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/expenses").header("Authorization", "Bearer " + newAuthToken))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    private String login(String password) throws Exception {
+
+        String loginResponse = mockMvc.perform(MockMvcRequestBuilders.post(ApplicationConstants.LOGIN_USER_API_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequestDto(EMAIL, password))))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        return objectMapper.readValue(loginResponse, LoginResponseDto.class).getAuthToken();
+    }
+}
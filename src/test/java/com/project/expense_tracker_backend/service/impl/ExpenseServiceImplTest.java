@@ -1,6 +1,9 @@
 package com.project.expense_tracker_backend.service.impl;
 
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.expense_tracker_backend.config.ExpenseProperties;
+import com.project.expense_tracker_backend.constants.ApplicationConstants;
 import com.project.expense_tracker_backend.dto.ExpenseRequestDto;
 import com.project.expense_tracker_backend.dto.ExpenseResponseDto;
 import com.project.expense_tracker_backend.exception.UserNotFoundException;
@@ -8,6 +11,8 @@ import com.project.expense_tracker_backend.mapper.ExpenseMapper;
 import com.project.expense_tracker_backend.model.Category;
 import com.project.expense_tracker_backend.model.Expense;
 import com.project.expense_tracker_backend.model.User;
+import com.project.expense_tracker_backend.repository.AggregateCategoryExpenseRepository;
+import com.project.expense_tracker_backend.repository.AggregateExpenseRepository;
 import com.project.expense_tracker_backend.repository.CategoryRepository;
 import com.project.expense_tracker_backend.repository.ExpenseRepository;
 import com.project.expense_tracker_backend.repository.UserRepository;
@@ -18,14 +23,21 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.cache.caffeine.CaffeineCache;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class ExpenseServiceImplTest {
 
@@ -44,6 +56,19 @@ class ExpenseServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private AggregateExpenseRepository aggregateExpenseRepository;
+
+    @Mock
+    private AggregateCategoryExpenseRepository aggregateCategoryExpenseRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private ExpenseProperties expenseProperties =
+            new ExpenseProperties(50, 500, 5000, 100000, 120, ExpenseProperties.AggregateMode.SYNC, 1000);
+
     @InjectMocks
     private ExpenseServiceImpl expenseService;
 
@@ -57,20 +82,15 @@ class ExpenseServiceImplTest {
     void testGetUserExpenses() {
         long userId = 1L;
 
-        List<Expense> mockUserExpenses = List.of(new Expense(1L, "Lunch", 500.0, LocalDate.now(), getCategory("Food"), getUser(userId)),
-                new Expense(2L, "Iphone", 90000.0, LocalDate.now(), getCategory("Shopping"), getUser(userId)));
-
         List<ExpenseResponseDto> mockResponseDto = List.of(
-                new ExpenseResponseDto(1L, "Lunch", 500.0, LocalDate.now(), "Food"),
-                new ExpenseResponseDto(1L, "Iphone", 90000.0, LocalDate.now(), "Shopping")
+                new ExpenseResponseDto(1L, "Lunch", LocalDate.now(), "Food", 50000L),
+                new ExpenseResponseDto(2L, "Iphone", LocalDate.now(), "Shopping", 9000000L)
         );
 
         LocalDate[] firstAndLastDate = DateUtil.getFirstAndLastDateOfMonth(null);
 
-        when(expenseRepository.findByUserUserIdAndDateBetween(userId, firstAndLastDate[0], firstAndLastDate[1]))
-                .thenReturn(mockUserExpenses);
-
-        when(expenseMapper.expenseToExpenseResponseMapper(mockUserExpenses)).thenReturn(mockResponseDto);
+        when(expenseRepository.findExpenseResponsesByUserIdAndDateBetween(userId, firstAndLastDate[0], firstAndLastDate[1]))
+                .thenReturn(mockResponseDto);
 
         List<ExpenseResponseDto> expenseResponseDto = expenseService.getUserExpenses(null, userId);
 
@@ -78,15 +98,83 @@ class ExpenseServiceImplTest {
         assertEquals(2, expenseResponseDto.size());
         assertEquals("Lunch", expenseResponseDto.getFirst().getDescription());
         assertEquals("Shopping", expenseResponseDto.getLast().getCategory());
+        assertEquals(90000.0, expenseResponseDto.getLast().getAmount());
         assertNotEquals(4, expenseResponseDto.size());
     }
 
+    @Test
+    void testGetUserExpenses_Month_Served_From_Cache_Until_Expense_Deleted() {
+        long userId = 1L;
+
+        YearMonth yearMonth = YearMonth.of(2024, 7);
+
+        Expense lunch = new Expense(1L, "Lunch", 50000L, yearMonth.atDay(3), getCategory("Food"), getUser(userId));
+
+        when(cacheManager.getCache(ApplicationConstants.MONTHLY_EXPENSES_CACHE_NAME))
+                .thenReturn(new CaffeineCache(ApplicationConstants.MONTHLY_EXPENSES_CACHE_NAME, Caffeine.newBuilder().buildAsync(), true));
+
+        when(expenseRepository.findExpenseResponsesByUserIdAndDateBetween(userId, yearMonth.atDay(1), yearMonth.atEndOfMonth()))
+                .thenReturn(List.of(new ExpenseResponseDto(1L, "Lunch", lunch.getDate(), "Food", 50000L)));
+
+        when(expenseRepository.findByExpenseIdAndUserUserId(1L, userId)).thenReturn(Optional.of(lunch));
+
+        assertEquals(1, expenseService.getUserExpenses("2024-07", userId).size());
+        assertNull(expenseService.getTotalMonthlyUserExpense("2024-07", userId));
+        assertEquals(1, expenseService.getUserExpenses("2024-07", userId).size());
+
+        verify(expenseRepository, times(1)).findExpenseResponsesByUserIdAndDateBetween(userId, yearMonth.atDay(1), yearMonth.atEndOfMonth());
+
+        expenseService.deleteUserExpense(1L, userId);
+
+        expenseService.getUserExpenses("2024-07", userId);
+
+        verify(expenseRepository, times(2)).findExpenseResponsesByUserIdAndDateBetween(userId, yearMonth.atDay(1), yearMonth.atEndOfMonth());
+    }
+
+    @Test
+    void testGetUserExpenses_Failed_Load_Not_Cached() {
+        long userId = 1L;
+
+        YearMonth yearMonth = YearMonth.of(2024, 7);
+
+        when(cacheManager.getCache(ApplicationConstants.MONTHLY_EXPENSES_CACHE_NAME))
+                .thenReturn(new CaffeineCache(ApplicationConstants.MONTHLY_EXPENSES_CACHE_NAME, Caffeine.newBuilder().buildAsync(), true));
+
+        when(expenseRepository.findExpenseResponsesByUserIdAndDateBetween(userId, yearMonth.atDay(1), yearMonth.atEndOfMonth()))
+                .thenThrow(new QueryTimeoutException("Query timed out"))
+                .thenReturn(List.of());
+
+        assertThrows(QueryTimeoutException.class, () -> expenseService.getUserExpenses("2024-07", userId));
+
+        assertEquals(0, expenseService.getUserExpenses("2024-07", userId).size());
+    }
+
+    @Test
+    void testGetUserExpenses_Load_Failed_With_Error_Not_Left_Pending() throws Exception {
+        long userId = 1L;
+
+        YearMonth yearMonth = YearMonth.of(2024, 7);
+
+        when(cacheManager.getCache(ApplicationConstants.MONTHLY_EXPENSES_CACHE_NAME))
+                .thenReturn(new CaffeineCache(ApplicationConstants.MONTHLY_EXPENSES_CACHE_NAME, Caffeine.newBuilder().buildAsync(), true));
+
+        when(expenseRepository.findExpenseResponsesByUserIdAndDateBetween(userId, yearMonth.atDay(1), yearMonth.atEndOfMonth()))
+                .thenThrow(new StackOverflowError())
+                .thenReturn(List.of());
+
+        assertThrows(StackOverflowError.class, () -> expenseService.getUserExpenses("2024-07", userId));
+
+        // the failed load was completed and dropped, the next request loads the month again instead of waiting forever
+        assertEquals(0, CompletableFuture.supplyAsync(() -> expenseService.getUserExpenses("2024-07", userId))
+                .get(5, TimeUnit.SECONDS).size());
+    }
+
     @Test
     void testSaveExpense_invalid_user_id() {
         long userId = 1L;
 
-        List<Expense> mockUserExpenses = List.of(new Expense(1L, "Lunch", 500.0, LocalDate.now(), getCategory("Food"), getUser(userId)),
-                new Expense(2L, "Iphone", 90000.0, LocalDate.now(), getCategory("Shopping"), getUser(userId)));
+        List<Expense> mockUserExpenses = List.of(new Expense(1L, "Lunch", 50000L, LocalDate.now(), getCategory("Food"), getUser(userId)),
+                new Expense(2L, "Iphone", 9000000L, LocalDate.now(), getCategory("Shopping"), getUser(userId)));
 
         List<ExpenseRequestDto> mockRequestDto = List.of(
                 new ExpenseRequestDto("Lunch", 500.0, LocalDate.now(), "Food"),
@@ -105,6 +193,6 @@ class ExpenseServiceImplTest {
     }
 
     private User getUser(long userId) {
-        return new User(userId, "Arghya", "test@gmail.com", "encrypted", "1234567890", LocalDateTime.now(), LocalDateTime.now());
+        return new User(userId, "Arghya", "test@gmail.com", "encrypted", 0, "1234567890", LocalDateTime.now(), LocalDateTime.now());
     }
 }
@@ -5,6 +5,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -29,6 +30,14 @@ public class DateUtilTest {
 
     }
 
+    @Test
+    void testPeriod_Sorts_Like_The_Months() {
+
+        assertEquals(2024 * 12 + 1, DateUtil.toPeriod(YearMonth.of(2024, 2)));
+        assertEquals(DateUtil.toPeriod(YearMonth.of(2023, 12)) + 1, DateUtil.toPeriod(YearMonth.of(2024, 1)));
+        assertEquals(YearMonth.of(2023, 12), DateUtil.fromPeriod(DateUtil.toPeriod(YearMonth.of(2023, 12))));
+    }
+
     @Test
     void testGetFirstAndLastDateOfMonth_Wrong_Format() {
 
@@ -0,0 +1,29 @@
+package com.project.expense_tracker_backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MoneyUtilTest {
+
+    @Test
+    void testToMinorUnits() {
+
+        assertEquals(1999L, MoneyUtil.toMinorUnits(19.99));
+        assertEquals(101L, MoneyUtil.toMinorUnits(1.005));
+        assertEquals(500000L, MoneyUtil.toMinorUnits(5000.0));
+        assertEquals(-125L, MoneyUtil.toMinorUnits(-1.25));
+    }
+
+    @Test
+    void testSumOfMinorUnitsHasNoDrift() {
+
+        long total = 0;
+
+        for (int i = 0; i < 10_000; i++) {
+            total += MoneyUtil.toMinorUnits(0.1);
+        }
+
+        assertEquals(1000.0, MoneyUtil.toDecimal(total));
+    }
+}